@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.wso2.carbon.ml.integration.common.utils.MLHttpClient;
+import org.wso2.carbon.ml.integration.common.utils.MLIntegrationTestConstants;
+import org.wso2.carbon.ml.integration.common.utils.MLSampleModelBuilder;
+
+/**
+ * This class reads the benchmark configuration from system properties. The same properties are passed on to the
+ * JVMs forked by JMH.
+ */
+public class MLBenchmarkConfiguration {
+
+    public static final String SERVER_URL_PROPERTY = "ml.server.url";
+    public static final String USERNAME_PROPERTY = "ml.username";
+    public static final String PASSWORD_PROPERTY = "ml.password";
+    public static final String SAMPLES_DIR_PROPERTY = "ml.samples.dir";
+    public static final String SAMPLES_PROPERTY = "ml.benchmark.samples";
+
+    public static final String DEFAULT_SERVER_URL = "https://localhost:9443";
+    public static final String DEFAULT_USERNAME = "admin";
+    public static final String DEFAULT_PASSWORD = "admin";
+    public static final String DEFAULT_SAMPLES_DIR = "../samples/default";
+
+    public static final String MODEL_GENERATION_SCRIPT = "model-generation.sh";
+
+    // Query string of the predict call in the script of a sample, e.g. ?percentile=98 for anomaly detection
+    private static final Pattern PREDICT_QUERY = Pattern.compile("/predict(\\?[^\\s'\"]*)");
+
+    // Samples which need services other than the ML server
+    private static final List<String> EXCLUDED_SAMPLES = Arrays.asList("logistic-regression-with-hdfs");
+
+    private static final String[] FORKED_JVM_PROPERTIES = { SERVER_URL_PROPERTY, USERNAME_PROPERTY,
+            PASSWORD_PROPERTY, "javax.net.ssl.trustStore", "javax.net.ssl.trustStorePassword" };
+
+    private MLBenchmarkConfiguration() {
+    }
+
+    /**
+     * Creates a pooled http client for the configured ML server.
+     *
+     * @return ML http client
+     */
+    public static MLHttpClient createMLHttpClient() {
+        return new MLHttpClient(System.getProperty(SERVER_URL_PROPERTY, DEFAULT_SERVER_URL), System.getProperty(
+                USERNAME_PROPERTY, DEFAULT_USERNAME), System.getProperty(PASSWORD_PROPERTY, DEFAULT_PASSWORD),
+                MLIntegrationTestConstants.MAX_CONNECTIONS_PER_ROUTE,
+                MLIntegrationTestConstants.IDLE_CONNECTION_TIMEOUT);
+    }
+
+    /**
+     * @return Directory of the default samples
+     */
+    public static File getSamplesDirectory() {
+        return new File(System.getProperty(SAMPLES_DIR_PROPERTY, DEFAULT_SAMPLES_DIR)).getAbsoluteFile();
+    }
+
+    /**
+     * Get the samples to be benchmarked. Defaults to all the samples which have a prediction test.
+     *
+     * @return Names of the sample directories
+     */
+    public static List<String> getSamples() {
+        String samples = System.getProperty(SAMPLES_PROPERTY);
+        if (samples != null && !samples.trim().isEmpty()) {
+            return Arrays.asList(samples.trim().split("\\s*,\\s*"));
+        }
+        List<String> sampleNames = new ArrayList<String>();
+        File[] sampleDirectories = getSamplesDirectory().listFiles();
+        if (sampleDirectories == null) {
+            return sampleNames;
+        }
+        for (File sampleDirectory : sampleDirectories) {
+            if (new File(sampleDirectory, MLSampleModelBuilder.PREDICTION_TEST_FILE).isFile()
+                    && !EXCLUDED_SAMPLES.contains(sampleDirectory.getName())) {
+                sampleNames.add(sampleDirectory.getName());
+            }
+        }
+        Collections.sort(sampleNames);
+        return sampleNames;
+    }
+
+    /**
+     * Get the query string with which the model-generation.sh script of a sample predicts, so that the benchmark
+     * sends the same request as the sample.
+     *
+     * @param sampleDirectory   Directory of the sample
+     * @return                  Query string including the leading '?', or an empty string if there is none
+     * @throws                  IOException
+     */
+    public static String getPredictQuery(File sampleDirectory) throws IOException {
+        if (!new File(sampleDirectory, MODEL_GENERATION_SCRIPT).isFile()) {
+            return "";
+        }
+        Matcher matcher = PREDICT_QUERY.matcher(MLSampleModelBuilder.readFile(sampleDirectory,
+                MODEL_GENERATION_SCRIPT));
+        return matcher.find() ? matcher.group(1) : "";
+    }
+
+    /**
+     * @return JVM arguments to pass the benchmark configuration on to the forked JVMs
+     */
+    public static String[] getForkedJvmArgs() {
+        List<String> jvmArgs = new ArrayList<String>();
+        jvmArgs.add("-D" + SAMPLES_DIR_PROPERTY + "=" + getSamplesDirectory().getPath());
+        for (String property : FORKED_JVM_PROPERTIES) {
+            String value = System.getProperty(property);
+            if (value != null) {
+                jvmArgs.add("-D" + property + "=" + value);
+            }
+        }
+        return jvmArgs.toArray(new String[jvmArgs.size()]);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wso2.carbon.ml.integration.common.utils.MLHttpClient;
+import org.wso2.carbon.ml.integration.common.utils.MLSampleModelBuilder;
+
+/**
+ * Entry point of the benchmarks. Builds a model for each of the configured samples once, runs the JMH benchmarks
+ * against the built models and deletes the models afterwards. Accepts the usual JMH command line options; the results
+ * are written as JSON unless another result format is given.
+ */
+public class MLBenchmarkRunner {
+
+    private static final Log log = LogFactory.getLog(MLBenchmarkRunner.class);
+    private static final String DEFAULT_RESULT_FILE = "ml-benchmark-results.json";
+    private static final long DATASET_PROCESSING_TIMEOUT = 120000;
+    private static final long MODEL_BUILDING_TIMEOUT = 600000;
+    private static final int STATUS_CHECK_FREQUENCY = 1000;
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        MLHttpClient mlHttpClient = MLBenchmarkConfiguration.createMLHttpClient();
+        String runId = String.valueOf(System.currentTimeMillis());
+        List<MLSampleModelBuilder> modelBuilders = new ArrayList<MLSampleModelBuilder>();
+        try {
+            List<String> models = new ArrayList<String>();
+            for (String sample : MLBenchmarkConfiguration.getSamples()) {
+                log.info("Building the model of sample: " + sample);
+                MLSampleModelBuilder modelBuilder = new MLSampleModelBuilder(mlHttpClient, new File(
+                        MLBenchmarkConfiguration.getSamplesDirectory(), sample), DATASET_PROCESSING_TIMEOUT,
+                        MODEL_BUILDING_TIMEOUT, STATUS_CHECK_FREQUENCY);
+                modelBuilders.add(modelBuilder);
+                int modelId = modelBuilder.buildModel("benchmark-" + sample + "-" + runId);
+                log.info("Built model [id] " + modelId + " of sample " + sample);
+                models.add(sample + PredictionBenchmark.MODEL_SEPARATOR + modelId);
+            }
+            ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions)
+                    .param(PredictionBenchmark.MODEL_PARAM, models.toArray(new String[models.size()]))
+                    .jvmArgsAppend(MLBenchmarkConfiguration.getForkedJvmArgs());
+            if (commandLineOptions.getIncludes().isEmpty()) {
+                options.include(PredictionBenchmark.class.getSimpleName());
+            }
+            if (!commandLineOptions.getResultFormat().hasValue()) {
+                options.resultFormat(ResultFormatType.JSON);
+            }
+            if (!commandLineOptions.getResult().hasValue()) {
+                options.result(DEFAULT_RESULT_FILE);
+            }
+            new Runner(options.build()).run();
+        } finally {
+            for (MLSampleModelBuilder modelBuilder : modelBuilders) {
+                modelBuilder.cleanUp();
+            }
+            mlHttpClient.close();
+        }
+    }
+}
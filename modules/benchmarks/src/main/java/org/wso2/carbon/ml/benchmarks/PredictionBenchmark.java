@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.ml.integration.common.utils.MLHttpClient;
+import org.wso2.carbon.ml.integration.common.utils.MLSampleModelBuilder;
+import org.wso2.carbon.ml.integration.common.utils.exception.MLHttpClientException;
+
+/**
+ * Measures the throughput and the latency distribution of the prediction API, for single-row and batched requests.
+ * The models are built by {@link MLBenchmarkRunner} before the benchmark starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class PredictionBenchmark {
+
+    public static final String MODEL_PARAM = "model";
+    public static final String MODEL_SEPARATOR = ":";
+
+    /**
+     * Model to be benchmarked in the form of sample-name:model-id
+     */
+    @Param("")
+    public String model;
+
+    /**
+     * Number of rows in a prediction request
+     */
+    @Param({ "1", "100" })
+    public int batchSize;
+
+    private MLHttpClient mlHttpClient;
+    private String resourcePath;
+    private String payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, JSONException {
+        String[] sampleAndModelId = model.split(MODEL_SEPARATOR);
+        if (sampleAndModelId.length != 2) {
+            throw new IllegalArgumentException("Invalid model: " + model + ". Run the benchmarks through "
+                    + MLBenchmarkRunner.class.getName() + " to build the models.");
+        }
+        mlHttpClient = MLBenchmarkConfiguration.createMLHttpClient();
+        File sampleDirectory = new File(MLBenchmarkConfiguration.getSamplesDirectory(), sampleAndModelId[0]);
+        resourcePath = "/api/models/" + sampleAndModelId[1] + "/predict"
+                + MLBenchmarkConfiguration.getPredictQuery(sampleDirectory);
+
+        // Repeat the rows of the prediction test of the sample to fill the batch
+        JSONArray rows = new JSONArray(MLSampleModelBuilder.readFile(sampleDirectory,
+                MLSampleModelBuilder.PREDICTION_TEST_FILE));
+        JSONArray batch = new JSONArray();
+        for (int i = 0; i < batchSize; i++) {
+            batch.put(rows.get(i % rows.length()));
+        }
+        payload = batch.toString();
+    }
+
+    @Benchmark
+    public JSONArray predict() throws MLHttpClientException, IOException, JSONException {
+        CloseableHttpResponse response = mlHttpClient.doHttpPost(resourcePath, payload);
+        mlHttpClient.checkStatus(response, resourcePath);
+        // Read and parse the body once, so that the measured time includes as little client work as possible
+        try {
+            return new JSONArray(EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8));
+        } finally {
+            response.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws MLHttpClientException {
+        mlHttpClient.close();
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.integration.common.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.util.EntityUtils;
+import org.json.JSONArray;
+import org.wso2.carbon.ml.integration.common.utils.exception.MLHttpClientException;
+
+/**
+ * This is a non-blocking http client to call the prediction API of ML models.
+ *
+ * Requests are sent through a non-blocking I/O reactor over a small pool of keep-alive connections, and many
+ * requests can be in flight at once. The number of requests in flight is bounded; once the bound is reached
+ * {@link #predict(long, String)} blocks until a response arrives, so callers are slowed down along with the server.
+ * Product recommendations are requested the same way.
+ */
+public class MLAsyncPredictionClient {
+
+    private final MLHttpClient mlHttpClient;
+    private final CloseableHttpAsyncClient httpAsyncClient;
+    private final Semaphore inFlightRequests;
+    private final int maxInFlightRequests;
+
+    /**
+     * @param mlHttpClient          ML http client of which the server and the credentials are used
+     * @param maxConnections        Maximum number of connections opened to the ML server
+     * @param maxInFlightRequests   Maximum number of requests waiting for a response at a time
+     * @throws MLHttpClientException
+     */
+    public MLAsyncPredictionClient(MLHttpClient mlHttpClient, int maxConnections, int maxInFlightRequests)
+            throws MLHttpClientException {
+        this.mlHttpClient = mlHttpClient;
+        this.maxInFlightRequests = maxInFlightRequests;
+        this.inFlightRequests = new Semaphore(maxInFlightRequests);
+        try {
+            PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(
+                    new DefaultConnectingIOReactor());
+            connectionManager.setDefaultMaxPerRoute(maxConnections);
+            connectionManager.setMaxTotal(maxConnections);
+            httpAsyncClient = HttpAsyncClients.custom().setConnectionManager(connectionManager).build();
+            httpAsyncClient.start();
+        } catch (IOReactorException e) {
+            throw new MLHttpClientException("Failed to create the I/O reactor of the async prediction client.", e);
+        }
+    }
+
+    /**
+     * Send a prediction request to a model without waiting for the response.
+     *
+     * @param modelId   ID of the model
+     * @param payload   JSON array of data points to be predicted
+     * @return          Future of the predictions
+     * @throws          MLHttpClientException
+     */
+    public Future<JSONArray> predict(long modelId, String payload) throws MLHttpClientException {
+        return predict(modelId, payload, null);
+    }
+
+    /**
+     * Send a prediction request to a model without waiting for the response. Blocks if the maximum number of
+     * requests are already in flight.
+     *
+     * @param modelId   ID of the model
+     * @param payload   JSON array of data points to be predicted
+     * @param callback  Callback to be notified once the predictions are available, can be null
+     * @return          Future of the predictions
+     * @throws          MLHttpClientException
+     */
+    public Future<JSONArray> predict(long modelId, String payload, FutureCallback<JSONArray> callback)
+            throws MLHttpClientException {
+        HttpPost post = new HttpPost(mlHttpClient.getServerUrlHttps() + "/api/models/" + modelId + "/predict");
+        post.setHeader(MLIntegrationTestConstants.CONTENT_TYPE, MLIntegrationTestConstants.CONTENT_TYPE_APPLICATION_JSON);
+        post.setEntity(new StringEntity(payload, StandardCharsets.UTF_8));
+        return execute(post, "predict using model: " + modelId, callback);
+    }
+
+    /**
+     * Request the top products for a user from a recommendation model without waiting for the response. Blocks if
+     * the maximum number of requests are already in flight. Recommendations for many users are fetched concurrently
+     * by calling this once per user; requests beyond the pooled connections wait for one to become free.
+     *
+     * @param modelId       ID of the recommendation model
+     * @param userId        ID of the user
+     * @param noOfProducts  Number of products to be recommended
+     * @param callback      Callback to be notified once the recommendations are available, can be null
+     * @return              Future of the recommended products
+     * @throws              MLHttpClientException
+     */
+    public Future<JSONArray> recommendProducts(long modelId, int userId, int noOfProducts,
+            FutureCallback<JSONArray> callback) throws MLHttpClientException {
+        HttpGet get = new HttpGet(mlHttpClient.getServerUrlHttps() + "/api/models/" + modelId
+                + "/product-recommendations?user-id=" + userId + "&no-of-products=" + noOfProducts);
+        return execute(get, "get product recommendations of user " + userId + " from model: " + modelId, callback);
+    }
+
+    private Future<JSONArray> execute(HttpUriRequest request, final String operation,
+            FutureCallback<JSONArray> callback) throws MLHttpClientException {
+        try {
+            inFlightRequests.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MLHttpClientException("Interrupted while waiting to " + operation, e);
+        }
+        final BasicFuture<JSONArray> results = new BasicFuture<JSONArray>(callback);
+        request.setHeader(MLIntegrationTestConstants.AUTHORIZATION_HEADER, mlHttpClient.getBasicAuthKey());
+        try {
+            send(request, operation, results);
+        } catch (RuntimeException e) {
+            // e.g. the I/O reactor has been stopped; the callback will never run to release the permit
+            inFlightRequests.release();
+            throw new MLHttpClientException("Failed to " + operation, e);
+        }
+        return results;
+    }
+
+    private void send(HttpUriRequest request, final String operation, final BasicFuture<JSONArray> results) {
+        httpAsyncClient.execute(request, new FutureCallback<HttpResponse>() {
+
+            @Override
+            public void completed(HttpResponse response) {
+                inFlightRequests.release();
+                try {
+                    int statusCode = response.getStatusLine().getStatusCode();
+                    String reply = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+                    if (statusCode != HttpStatus.SC_OK) {
+                        results.failed(new MLHttpClientException("Failed to " + operation
+                                + ". Unexpected response received: " + statusCode));
+                        return;
+                    }
+                    results.completed(new JSONArray(reply));
+                } catch (Exception e) {
+                    results.failed(new MLHttpClientException("Failed to extract the response to " + operation, e));
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                inFlightRequests.release();
+                results.failed(new MLHttpClientException("Failed to " + operation, e));
+            }
+
+            @Override
+            public void cancelled() {
+                inFlightRequests.release();
+                results.cancel(true);
+            }
+        });
+    }
+
+    /**
+     * @return  Number of requests waiting for a response
+     */
+    public int getInFlightRequestCount() {
+        return maxInFlightRequests - inFlightRequests.availablePermits();
+    }
+
+    /**
+     * Shut down the I/O reactor and release the connections.
+     *
+     * @throws MLHttpClientException
+     */
+    public void close() throws MLHttpClientException {
+        try {
+            httpAsyncClient.close();
+        } catch (IOException e) {
+            throw new MLHttpClientException("Failed to close the async prediction client.", e);
+        }
+    }
+}
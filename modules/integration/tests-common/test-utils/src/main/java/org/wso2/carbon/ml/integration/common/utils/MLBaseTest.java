@@ -108,6 +108,28 @@ public abstract class MLBaseTest {
         }
     }
     
+    /**
+     * Creates a dataset from a file of the given format and keep a reference to the id.
+     */
+    protected int createDatasetFromFile(String name, String version, File file, String dataFormat,
+            boolean containsHeader) throws MLHttpClientException, IOException, JSONException {
+        CloseableHttpResponse response = null;
+        try {
+            response = mlHttpclient.uploadDatasetFromFile(name, version, file, dataFormat, containsHeader);
+            assertEquals("Unexpected response received", Response.Status.OK.getStatusCode(), response.getStatusLine()
+                    .getStatusCode());
+            int id = getId(response);
+            datasetIds.add(id);
+            int versionSetId = getVersionSetId(id, version);
+            datasetVersionIds.add(versionSetId);
+            return id;
+        } finally {
+            if (response != null) {
+                response.close();
+            }
+        }
+    }
+    
     /**
      * Creates a dataset with given specification and keep a reference to the id.
      */
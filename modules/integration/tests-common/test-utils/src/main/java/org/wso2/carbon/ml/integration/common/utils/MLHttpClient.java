@@ -22,13 +22,20 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.codec.binary.Base64;
+import org.apache.http.Header;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
@@ -39,6 +46,8 @@ import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.entity.mime.content.StringBody;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -52,15 +61,157 @@ import org.wso2.carbon.ml.integration.common.utils.exception.MLIntegrationBaseTe
 
 /**
  * This is a http client to call ML services through the REST API.
+ * 
+ * By default every call is sent through a new connection. In pooled mode, all the calls share a
+ * {@link PoolingHttpClientConnectionManager}, hence keep-alive connections (and their TLS sessions) are reused
+ * across calls. A pooled client should be closed with {@link #close()} once it is no longer needed.
  */
 public class MLHttpClient {
     
-    private User userInfo;
+    private String userName;
+    private String password;
     private Instance mlInstance;
+    private String serverUrlHttps;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient pooledHttpClient;
+    private IdleConnectionEvictor idleConnectionEvictor;
+    private boolean closed;
     
     public MLHttpClient(Instance mlInstance, User userInfo) {
         this.mlInstance = mlInstance;
-        this.userInfo = userInfo;
+        this.userName = userInfo.getUserName();
+        this.password = userInfo.getPassword();
+    }
+    
+    /**
+     * Creates a http client in pooled mode.
+     * 
+     * @param maxConnectionsPerRoute    Maximum number of connections kept open to the ML server
+     * @param idleConnectionTimeout     Time in milliseconds after which an idle connection is evicted from the pool
+     */
+    public MLHttpClient(Instance mlInstance, User userInfo, int maxConnectionsPerRoute, long idleConnectionTimeout) {
+        this(mlInstance, userInfo);
+        initConnectionPool(maxConnectionsPerRoute, idleConnectionTimeout);
+    }
+    
+    /**
+     * Creates a http client for an ML server outside the automation framework, e.g. from a benchmark or a load
+     * generator.
+     * 
+     * @param serverUrlHttps    Secured URL of the ML server, e.g. https://localhost:9443
+     * @param userName          Name of the user to call the REST API as
+     * @param password          Password of the user
+     */
+    public MLHttpClient(String serverUrlHttps, String userName, String password) {
+        this.serverUrlHttps = serverUrlHttps;
+        this.userName = userName;
+        this.password = password;
+    }
+    
+    /**
+     * Creates a http client in pooled mode, for an ML server outside the automation framework.
+     * 
+     * @param serverUrlHttps            Secured URL of the ML server, e.g. https://localhost:9443
+     * @param userName                  Name of the user to call the REST API as
+     * @param password                  Password of the user
+     * @param maxConnectionsPerRoute    Maximum number of connections kept open to the ML server
+     * @param idleConnectionTimeout     Time in milliseconds after which an idle connection is evicted from the pool
+     */
+    public MLHttpClient(String serverUrlHttps, String userName, String password, int maxConnectionsPerRoute,
+            long idleConnectionTimeout) {
+        this(serverUrlHttps, userName, password);
+        initConnectionPool(maxConnectionsPerRoute, idleConnectionTimeout);
+    }
+    
+    private void initConnectionPool(int maxConnectionsPerRoute, long idleConnectionTimeout) {
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setMaxTotal(maxConnectionsPerRoute);
+        // Fail fast instead of waiting forever, if a caller does not release a connection back to the pool
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(MLIntegrationTestConstants.CONNECTION_REQUEST_TIMEOUT).build();
+        pooledHttpClient = HttpClients.custom().setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig).build();
+        idleConnectionEvictor = new IdleConnectionEvictor(connectionManager, idleConnectionTimeout);
+        idleConnectionEvictor.start();
+    }
+    
+    /**
+     * @return  true if this client reuses connections through a connection pool
+     */
+    public boolean isPooled() {
+        return pooledHttpClient != null;
+    }
+    
+    /**
+     * Get the http client to be used for a call. Returns the shared client in pooled mode and a new client otherwise.
+     * 
+     * @return  Http client
+     */
+    protected CloseableHttpClient getHttpClient() {
+        if (pooledHttpClient != null) {
+            return pooledHttpClient;
+        }
+        if (closed) {
+            throw new IllegalStateException("The pooled http client has been closed.");
+        }
+        return HttpClients.createDefault();
+    }
+    
+    /**
+     * Read the rest of the body of a response and close it. In pooled mode a response must be released this way,
+     * since closing a response with an unread body shuts its connection down instead of returning it to the pool.
+     * 
+     * @param response  Response to be released
+     * @throws          MLHttpClientException
+     */
+    public void releaseResponse(CloseableHttpResponse response) throws MLHttpClientException {
+        try {
+            try {
+                EntityUtils.consume(response.getEntity());
+            } finally {
+                response.close();
+            }
+        } catch (IOException e) {
+            throw new MLHttpClientException("Failed to release the response.", e);
+        }
+    }
+    
+    /**
+     * Check that a call succeeded. The response of a failed call is released before the exception is thrown.
+     * 
+     * @param response      Response to be checked
+     * @param resourcePath  Resource path of the call, for the error message
+     * @throws              MLHttpClientException if the status of the response is not 200 OK
+     */
+    public void checkStatus(CloseableHttpResponse response, String resourcePath) throws MLHttpClientException {
+        int statusCode = response.getStatusLine().getStatusCode();
+        if (statusCode != HttpStatus.SC_OK) {
+            releaseResponse(response);
+            throw new MLHttpClientException("Unexpected response received from " + resourcePath + ": " + statusCode);
+        }
+    }
+
+    /**
+     * Release the connections held by this client. Has no effect if the client is not in pooled mode. A pooled client
+     * cannot be used once it is closed.
+     * 
+     * @throws MLHttpClientException
+     */
+    public void close() throws MLHttpClientException {
+        if (pooledHttpClient == null) {
+            return;
+        }
+        idleConnectionEvictor.shutdown();
+        try {
+            pooledHttpClient.close();
+        } catch (IOException e) {
+            throw new MLHttpClientException("Failed to close the pooled http client.", e);
+        } finally {
+            pooledHttpClient = null;
+            connectionManager = null;
+            closed = true;
+        }
     }
     
     
@@ -71,6 +222,9 @@ public class MLHttpClient {
      * @throws  MLIntegrationBaseTestException
      */
     protected String getServerUrlHttps() {
+        if (serverUrlHttps != null) {
+            return serverUrlHttps;
+        }
         String protocol = ContextXpathConstants.PRODUCT_GROUP_PORT_HTTPS;
         String host = UrlGenerationUtil.getWorkerHost(mlInstance);
         //Get port
@@ -112,7 +266,7 @@ public class MLHttpClient {
      * @throws      MLHttpClientException 
      */
     public CloseableHttpResponse doHttpGet(String resourcePath) throws MLHttpClientException {
-        CloseableHttpClient httpClient =  HttpClients.createDefault();
+        CloseableHttpClient httpClient = getHttpClient();
         HttpGet get = null;
         try {
             get = new HttpGet(getServerUrlHttps() + resourcePath);
@@ -136,7 +290,7 @@ public class MLHttpClient {
      */
     public CloseableHttpResponse doHttpPost(String resourcePath, String parametersJson) throws MLHttpClientException {
     	try {
-    	    CloseableHttpClient httpClient =  HttpClients.createDefault();
+    	    CloseableHttpClient httpClient = getHttpClient();
             HttpPost post = new HttpPost(getServerUrlHttps() + resourcePath);
             post.setHeader(MLIntegrationTestConstants.CONTENT_TYPE, MLIntegrationTestConstants.CONTENT_TYPE_APPLICATION_JSON);
             post.setHeader(MLIntegrationTestConstants.AUTHORIZATION_HEADER, getBasicAuthKey());
@@ -162,7 +316,7 @@ public class MLHttpClient {
     public CloseableHttpResponse doHttpPostCrossOrigin(String resourcePath, String parametersJson)
             throws MLHttpClientException {
         try {
-            CloseableHttpClient httpClient = HttpClients.createDefault();
+            CloseableHttpClient httpClient = getHttpClient();
             HttpPost post = new HttpPost(getServerUrlHttps() + resourcePath);
             post.setHeader(MLIntegrationTestConstants.CONTENT_TYPE,
                     MLIntegrationTestConstants.CONTENT_TYPE_APPLICATION_JSON);
@@ -197,7 +351,7 @@ public class MLHttpClient {
      * @throws      MLHttpClientException 
      */
     public CloseableHttpResponse doHttpDelete(String resourcePath) throws MLHttpClientException {
-        CloseableHttpClient httpClient =  HttpClients.createDefault();
+        CloseableHttpClient httpClient = getHttpClient();
         HttpDelete delete;
         try {
             delete = new HttpDelete(getServerUrlHttps() + resourcePath);
@@ -218,7 +372,7 @@ public class MLHttpClient {
      * @return  Encoded Key Basic auth Key
      */
     public String getBasicAuthKey() {
-        String token = this.userInfo.getUserName() + ":" + userInfo.getPassword();
+        String token = userName + ":" + password;
         byte[] tokenBytes = token.getBytes(StandardCharsets.UTF_8);
         String encodedToken = new String(Base64.encodeBase64(tokenBytes), StandardCharsets.UTF_8);
         return (MLIntegrationTestConstants.BASIC + encodedToken);
@@ -235,7 +389,7 @@ public class MLHttpClient {
      */
     public CloseableHttpResponse uploadDatasetFromCSV(String datasetName, String version, String resourcePath)
             throws MLHttpClientException {
-        CloseableHttpClient httpClient =  HttpClients.createDefault();
+        CloseableHttpClient httpClient = getHttpClient();
         try {
             HttpPost httpPost = new HttpPost(getServerUrlHttps() + "/api/datasets/");
             httpPost.setHeader(MLIntegrationTestConstants.AUTHORIZATION_HEADER, getBasicAuthKey());
@@ -245,7 +399,8 @@ public class MLHttpClient {
                         ContentType.TEXT_PLAIN));
             multipartEntityBuilder.addPart("sourceType", new StringBody("file", ContentType.TEXT_PLAIN));
             multipartEntityBuilder.addPart("destination", new StringBody("file", ContentType.TEXT_PLAIN));
-            multipartEntityBuilder.addPart("dataFormat", new StringBody("CSV", ContentType.TEXT_PLAIN));
+            multipartEntityBuilder.addPart("dataFormat", new StringBody(MLIntegrationTestConstants.DATA_FORMAT_CSV,
+                    ContentType.TEXT_PLAIN));
             multipartEntityBuilder.addPart("containsHeader", new StringBody("true", ContentType.TEXT_PLAIN));
 
             if (datasetName != null) {
@@ -266,6 +421,55 @@ public class MLHttpClient {
         }
     }
     
+    /**
+     * Upload a datatset from a CSV file in the file system
+     * 
+     * @param datasetName   Name for the dataset
+     * @param version       Version for the dataset
+     * @param file          CSV file with a header row
+     * @return              Response from the backend
+     * @throws              MLHttpClientException 
+     */
+    public CloseableHttpResponse uploadDatasetFromFile(String datasetName, String version, File file)
+            throws MLHttpClientException {
+        return uploadDatasetFromFile(datasetName, version, file, MLIntegrationTestConstants.DATA_FORMAT_CSV, true);
+    }
+    
+    /**
+     * Upload a datatset from a file in the file system. The file is sent as-is, in the given data format.
+     * 
+     * @param datasetName       Name for the dataset
+     * @param version           Version for the dataset
+     * @param file              Dataset file
+     * @param dataFormat        Data format of the file, e.g. CSV or TSV
+     * @param containsHeader    Whether the first row of the file is a header
+     * @return                  Response from the backend
+     * @throws                  MLHttpClientException 
+     */
+    public CloseableHttpResponse uploadDatasetFromFile(String datasetName, String version, File file,
+            String dataFormat, boolean containsHeader) throws MLHttpClientException {
+        CloseableHttpClient httpClient = getHttpClient();
+        try {
+            HttpPost httpPost = new HttpPost(getServerUrlHttps() + "/api/datasets/");
+            httpPost.setHeader(MLIntegrationTestConstants.AUTHORIZATION_HEADER, getBasicAuthKey());
+
+            MultipartEntityBuilder multipartEntityBuilder = MultipartEntityBuilder.create();
+            multipartEntityBuilder.addPart("description", new StringBody(datasetName, ContentType.TEXT_PLAIN));
+            multipartEntityBuilder.addPart("sourceType", new StringBody("file", ContentType.TEXT_PLAIN));
+            multipartEntityBuilder.addPart("destination", new StringBody("file", ContentType.TEXT_PLAIN));
+            multipartEntityBuilder.addPart("dataFormat", new StringBody(dataFormat, ContentType.TEXT_PLAIN));
+            multipartEntityBuilder.addPart("containsHeader", new StringBody(String.valueOf(containsHeader),
+                    ContentType.TEXT_PLAIN));
+            multipartEntityBuilder.addPart("datasetName", new StringBody(datasetName, ContentType.TEXT_PLAIN));
+            multipartEntityBuilder.addPart("version", new StringBody(version, ContentType.TEXT_PLAIN));
+            multipartEntityBuilder.addBinaryBody("file", file, ContentType.APPLICATION_OCTET_STREAM, file.getName());
+            httpPost.setEntity(multipartEntityBuilder.build());
+            return httpClient.execute(httpPost);
+        } catch (Exception e) {
+            throw new MLHttpClientException("Failed to upload dataset from file " + file, e);
+        }
+    }
+    
     /**
      * Upload a sample datatset from resources
      * 
@@ -277,7 +481,7 @@ public class MLHttpClient {
      */
     public CloseableHttpResponse uploadDatasetFromDAS(String datasetName, String version, String tableName)
             throws MLHttpClientException {
-        CloseableHttpClient httpClient =  HttpClients.createDefault();
+        CloseableHttpClient httpClient = getHttpClient();
         try {
             HttpPost httpPost = new HttpPost(getServerUrlHttps() + "/api/datasets/");
             httpPost.setHeader(MLIntegrationTestConstants.AUTHORIZATION_HEADER, getBasicAuthKey());
@@ -286,7 +490,8 @@ public class MLHttpClient {
                     ContentType.TEXT_PLAIN));
             multipartEntityBuilder.addPart("sourceType", new StringBody("das", ContentType.TEXT_PLAIN));
             multipartEntityBuilder.addPart("destination", new StringBody("file", ContentType.TEXT_PLAIN));
-            multipartEntityBuilder.addPart("dataFormat", new StringBody("CSV", ContentType.TEXT_PLAIN));
+            multipartEntityBuilder.addPart("dataFormat", new StringBody(MLIntegrationTestConstants.DATA_FORMAT_CSV,
+                    ContentType.TEXT_PLAIN));
             multipartEntityBuilder.addPart("sourcePath", new StringBody(tableName, ContentType.TEXT_PLAIN));
             if (datasetName != null) {
                 multipartEntityBuilder.addPart("datasetName", new StringBody(datasetName, ContentType.TEXT_PLAIN));
@@ -307,13 +512,14 @@ public class MLHttpClient {
      * @throws MLHttpClientException
      */
     public CloseableHttpResponse predictFromCSV(long modelId, String resourcePath) throws MLHttpClientException {
-        CloseableHttpClient httpClient = HttpClients.createDefault();
+        CloseableHttpClient httpClient = getHttpClient();
         try {
             HttpPost httpPost = new HttpPost(getServerUrlHttps() + "/api/models/predict");
             httpPost.setHeader(MLIntegrationTestConstants.AUTHORIZATION_HEADER, getBasicAuthKey());
             MultipartEntityBuilder multipartEntityBuilder = MultipartEntityBuilder.create();
             multipartEntityBuilder.addPart("modelId", new StringBody(modelId + "", ContentType.TEXT_PLAIN));
-            multipartEntityBuilder.addPart("dataFormat", new StringBody("CSV", ContentType.TEXT_PLAIN));
+            multipartEntityBuilder.addPart("dataFormat", new StringBody(MLIntegrationTestConstants.DATA_FORMAT_CSV,
+                    ContentType.TEXT_PLAIN));
             if (resourcePath != null) {
                 File file = new File(getResourceAbsolutePath(resourcePath));
                 multipartEntityBuilder.addBinaryBody("file", file, ContentType.APPLICATION_OCTET_STREAM,
@@ -325,7 +531,117 @@ public class MLHttpClient {
             throw new MLHttpClientException("Failed to predict from csv " + resourcePath, e);
         }
     }
-    
+
+    /**
+     * Predict for a CSV file in micro-batches. The file is read row by row, each batch of rows is sent to the predict
+     * API of the model and its predictions are written out, one JSON value per line, before the next batch is read.
+     * Hence neither the file nor the predictions are held in memory as a whole.
+     *
+     * @param modelId           ID of the model
+     * @param file              CSV file of the data points to be predicted
+     * @param containsHeader    Whether the first row of the file is a header
+     * @param batchSize         Number of rows sent in a single predict request, at least 1
+     * @param writer            Writer to which the predictions are written
+     * @return                  Number of predictions written
+     * @throws                  MLHttpClientException
+     */
+    public long predictFromCSVInBatches(long modelId, File file, boolean containsHeader, int batchSize, Writer writer)
+            throws MLHttpClientException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1: " + batchSize);
+        }
+        String resourcePath = "/api/models/" + modelId + "/predict";
+        long predictionCount = 0;
+        BufferedReader bufferedReader = null;
+        try {
+            bufferedReader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+            if (containsHeader) {
+                bufferedReader.readLine();
+            }
+            JSONArray batch = new JSONArray();
+            String line;
+            while ((line = bufferedReader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                batch.put(new JSONArray(parseCSVRow(line)));
+                if (batch.length() == batchSize) {
+                    predictionCount += predictBatch(resourcePath, batch, writer);
+                    batch = new JSONArray();
+                }
+            }
+            if (batch.length() > 0) {
+                predictionCount += predictBatch(resourcePath, batch, writer);
+            }
+            writer.flush();
+            return predictionCount;
+        } catch (IOException e) {
+            throw new MLHttpClientException("Failed to predict from csv " + file, e);
+        } finally {
+            if (bufferedReader != null) {
+                try {
+                    bufferedReader.close();
+                } catch (IOException ignore) {
+                    // Nothing to do, the predictions have already been written or have failed
+                }
+            }
+        }
+    }
+
+    private int predictBatch(String resourcePath, JSONArray batch, Writer writer) throws MLHttpClientException,
+            IOException {
+        CloseableHttpResponse response = doHttpPost(resourcePath, batch.toString());
+        int statusCode = response.getStatusLine().getStatusCode();
+        if (statusCode != HttpStatus.SC_OK) {
+            releaseResponse(response);
+            throw new MLHttpClientException("Failed to predict using " + resourcePath
+                    + ". Unexpected response received: " + statusCode);
+        }
+        String body = getResponseAsString(response);
+        if (body == null) {
+            throw new MLHttpClientException("Failed to predict using " + resourcePath + ". The response has no body.");
+        }
+        try {
+            JSONArray predictions = new JSONArray(body);
+            for (int i = 0; i < predictions.length(); i++) {
+                Object prediction = predictions.get(i);
+                writer.write(prediction instanceof String ? JSONObject.quote((String) prediction) : prediction
+                        .toString());
+                writer.write('\n');
+            }
+            return predictions.length();
+        } catch (JSONException e) {
+            throw new MLHttpClientException("Failed to extract the predictions of " + resourcePath, e);
+        }
+    }
+
+    /**
+     * Split a CSV row into its values, honouring double quoted values which may contain commas.
+     */
+    private static List<String> parseCSVRow(String line) {
+        List<String> values = new ArrayList<String>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append(c);
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
     /**
      * Create a project
      * 
@@ -418,7 +734,7 @@ public class MLHttpClient {
     }
     
     /**
-     * Check the status of a dataset.
+     * Check the status of a dataset. Returns as soon as the dataset is processed, without waiting for another check.
      * @param versionSetId
      * @param timeout
      * @param frequency
@@ -429,14 +745,16 @@ public class MLHttpClient {
      */
     public boolean checkDatasetStatus(int versionSetId, long timeout, int frequency) throws MLHttpClientException, 
             IOException {
-        boolean status = false;
         int totalTime = 0;
-        while (!status && timeout >= totalTime) {
+        while (true) {
             CloseableHttpResponse response = doHttpGet("/api/datasets/versions/" + versionSetId + "/sample");
             int statusCode = response.getStatusLine().getStatusCode();
-            response.close();
+            releaseResponse(response);
             // Checks whether status is not 404
-            status = statusCode != HttpStatus.SC_NOT_FOUND;
+            boolean status = statusCode != HttpStatus.SC_NOT_FOUND;
+            if (status || totalTime + frequency > timeout) {
+                return status;
+            }
             try {
                 Thread.sleep(frequency);
             } catch (InterruptedException ignore) {
@@ -444,7 +762,6 @@ public class MLHttpClient {
 
             totalTime += frequency;
         }
-        return status;
     }
     
     /**
@@ -670,6 +987,125 @@ public class MLHttpClient {
         }
     }
     
+    /**
+     * Wait until a model reaches the given status.
+     * 
+     * The server is asked to hold the request until the status is reached (long polling), hence a single request is
+     * enough for most builds. If the server answers before that, the status is checked again with an exponential
+     * back-off starting from the given frequency. Stops waiting if the model reaches another final status.
+     * 
+     * @param modelName Name of the model
+     * @param status    Expected status, e.g. Complete
+     * @param timeout   Maximum time to wait in milliseconds
+     * @param frequency Initial time between two status checks in milliseconds
+     * @return          true if the model reached the status within the timeout
+     * @throws          MLHttpClientException 
+     */
+    public boolean waitForModelStatus(String modelName, String status, long timeout, int frequency)
+            throws MLHttpClientException {
+        return waitForModelStatus(modelName, status, timeout, frequency,
+                MLIntegrationTestConstants.MODEL_STATUS_MAX_CHECK_INTERVAL);
+    }
+    
+    /**
+     * Wait until a model reaches the given status, with the time between two status checks growing up to the given
+     * maximum. Pass the frequency as the maximum to check at a fixed interval, e.g. to time the build.
+     * 
+     * @param modelName     Name of the model
+     * @param status        Expected status, e.g. Complete
+     * @param timeout       Maximum time to wait in milliseconds
+     * @param frequency     Initial time between two status checks in milliseconds
+     * @param maxFrequency  Maximum time between two status checks in milliseconds
+     * @return              true if the model reached the status within the timeout
+     * @throws              MLHttpClientException 
+     */
+    public boolean waitForModelStatus(String modelName, String status, long timeout, int frequency,
+            long maxFrequency) throws MLHttpClientException {
+        long deadline = System.currentTimeMillis() + timeout;
+        long interval = frequency;
+        while (true) {
+            long remainingTime = deadline - System.currentTimeMillis();
+            long longPollTimeout = Math.max(0, Math.min(remainingTime,
+                    MLIntegrationTestConstants.MODEL_STATUS_LONG_POLL_TIMEOUT));
+            String currentStatus;
+            try {
+                CloseableHttpResponse response = doHttpGet("/api/models/" + modelName + "?waitFor=" + status
+                        + "&timeout=" + longPollTimeout);
+                currentStatus = getResponseAsJSONObject(response).getString("status");
+            } catch (JSONException e) {
+                throw new MLHttpClientException("Failed to get the status of model: " + modelName, e);
+            }
+            if (status.equals(currentStatus)) {
+                return true;
+            }
+            if (isFinalModelStatus(currentStatus)) {
+                return false;
+            }
+            remainingTime = deadline - System.currentTimeMillis();
+            if (remainingTime <= 0) {
+                return false;
+            }
+            try {
+                Thread.sleep(Math.min(interval, remainingTime));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MLHttpClientException("Interrupted while waiting for model: " + modelName, e);
+            }
+            interval = Math.min(interval * 2, maxFrequency);
+        }
+    }
+    
+    private static boolean isFinalModelStatus(String status) {
+        return MLIntegrationTestConstants.MODEL_STATUS_COMPLETE.equals(status)
+                || MLIntegrationTestConstants.MODEL_STATUS_FAILED.equals(status);
+    }
+    
+    /**
+     * Start building a model. If the server turns the build away because its build queue is full (429 Too Many
+     * Requests), the build is submitted again after the delay in the Retry-After header of the response or an
+     * exponentially growing back-off, whichever is longer, until the timeout expires.
+     * 
+     * @param modelId   ID of the model
+     * @param timeout   Time in milliseconds to keep submitting the build for
+     * @return          Response from the backend to the last submission
+     * @throws          MLHttpClientException
+     */
+    public CloseableHttpResponse buildModel(long modelId, long timeout) throws MLHttpClientException {
+        long deadline = System.currentTimeMillis() + timeout;
+        long interval = MLIntegrationTestConstants.MODEL_BUILD_RETRY_INTERVAL;
+        while (true) {
+            CloseableHttpResponse response = doHttpPost("/api/models/" + modelId);
+            if (response.getStatusLine().getStatusCode() != MLIntegrationTestConstants.HTTP_STATUS_TOO_MANY_REQUESTS) {
+                return response;
+            }
+            // Never resubmit sooner than the back-off, even if the server asks for it
+            long delay = Math.max(getRetryAfter(response), interval);
+            if (System.currentTimeMillis() + delay > deadline) {
+                return response;
+            }
+            releaseResponse(response);
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MLHttpClientException("Interrupted while waiting to build model: " + modelId, e);
+            }
+            interval = Math.min(interval * 2, MLIntegrationTestConstants.MODEL_BUILD_MAX_RETRY_INTERVAL);
+        }
+    }
+    
+    private static long getRetryAfter(CloseableHttpResponse response) {
+        Header retryAfter = response.getFirstHeader(MLIntegrationTestConstants.RETRY_AFTER_HEADER);
+        if (retryAfter != null) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.getValue().trim()));
+            } catch (NumberFormatException e) {
+                // An HTTP date instead of seconds, fall back to the back-off
+            }
+        }
+        return 0;
+    }
+    
     /**
      * Create the file storage for a model
      * 
@@ -733,4 +1169,43 @@ public class MLHttpClient {
             throw new MLHttpClientException("Failed to download model as PMML for model [id] " + modelId, e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Closes the expired connections and the connections idle for longer than the given time, in a connection pool.
+     */
+    private static class IdleConnectionEvictor extends Thread {
+
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final long idleConnectionTimeout;
+        private volatile boolean shutdown;
+
+        public IdleConnectionEvictor(PoolingHttpClientConnectionManager connectionManager,
+                long idleConnectionTimeout) {
+            super("ml-http-client-idle-connection-evictor");
+            setDaemon(true);
+            this.connectionManager = connectionManager;
+            this.idleConnectionTimeout = idleConnectionTimeout;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!shutdown) {
+                    synchronized (this) {
+                        wait(idleConnectionTimeout);
+                    }
+                    connectionManager.closeExpiredConnections();
+                    connectionManager.closeIdleConnections(idleConnectionTimeout, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException ignore) {
+            }
+        }
+
+        public void shutdown() {
+            shutdown = true;
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+}
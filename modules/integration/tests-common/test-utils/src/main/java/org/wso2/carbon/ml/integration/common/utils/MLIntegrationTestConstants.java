@@ -41,6 +41,17 @@ public class MLIntegrationTestConstants {
 	public static final String CONTENT_TYPE_APPLICATION_JSON = "application/json";
 	public static final String ORIGIN_HEADER = "Origin";
 	public static final String ORIGIN_HEADER_VALUE = "http://example.com";
+	public static final String RETRY_AFTER_HEADER = "Retry-After";
+	public static final int HTTP_STATUS_TOO_MANY_REQUESTS = 429;
+
+	// Constants related to the pooled http client
+	public static final int MAX_CONNECTIONS_PER_ROUTE = 20;
+	public static final long IDLE_CONNECTION_TIMEOUT = 30000;
+	public static final int CONNECTION_REQUEST_TIMEOUT = 60000;
+
+	// Data formats of uploaded datasets
+	public static final String DATA_FORMAT_CSV = "CSV";
+	public static final String DATA_FORMAT_TSV = "TSV";
 
 	// Constants related to configuring models
 	public static final String TRAIN_DATA_FRACTION_CONFIG = "trainDataFraction";
@@ -60,6 +71,15 @@ public class MLIntegrationTestConstants {
 	// The time constant
     public static final long THREAD_SLEEP_TIME_LARGE = 120000;
 
+	// Constants related to waiting for a model to be built
+	public static final String MODEL_STATUS_COMPLETE = "Complete";
+	public static final String MODEL_STATUS_FAILED = "Failed";
+	public static final long MODEL_STATUS_LONG_POLL_TIMEOUT = 30000;
+	public static final long MODEL_STATUS_MAX_CHECK_INTERVAL = 10000;
+	// Initial and maximum back-off before a build turned away with 429 Too Many Requests is submitted again
+	public static final long MODEL_BUILD_RETRY_INTERVAL = 1000;
+	public static final long MODEL_BUILD_MAX_RETRY_INTERVAL = 10000;
+
 	// Constants for Test cases
 	public static final String CLASSIFICATION = "Classification";
 	public static final String NUMERICAL_PREDICTION = "Numerical_Prediction";
@@ -77,6 +97,7 @@ public class MLIntegrationTestConstants {
 	public static final String DATASETS_PATH = "artifacts/ML/data/";
 	public static final String DAS_DATASET_SAMPLE = "STREAMING_DATA";
 	public static final String DIABETES_DATASET_SAMPLE = DATASETS_PATH+"pIndiansDiabetes.csv";
+	public static final String DIABETES_DATASET_TSV_SAMPLE = DATASETS_PATH+"pIndiansDiabetes.tsv";
 	public static final String DIABETES_DATASET_TEST = DATASETS_PATH+"pIndiansDiabetesTest.csv";
 	public static final String YACHT_DATASET_SAMPLE = DATASETS_PATH+"yachtHydrodynamics.csv";
 	public static final String BREAST_CANCER_DATASET_SAMPLE = DATASETS_PATH+"breastCancerWisconsin.csv";
@@ -92,6 +113,8 @@ public class MLIntegrationTestConstants {
 
 	public static final String DATASET_NAME_DIABETES = "Diabetes";
 	public static final String DATASET_NAME_DIABETES_ANOMALY = "Diabetes_Anomaly";
+	public static final String DATASET_NAME_DIABETES_LATENCY = "Diabetes_Latency";
+	public static final String DATASET_NAME_DIABETES_TSV = "Diabetes_TSV";
 	public static final int DATASET_ID_DIABETES = 1;
 	public static final int DATASET_ID_DAS = 2;
 
@@ -127,6 +150,7 @@ public class MLIntegrationTestConstants {
     // Projects
 	public static final String PROJECT_NAME_DIABETES = "Diabetes_Project";
 	public static final String PROJECT_NAME_DIABETES_ANOMALY = "Diabetes_Anomaly_Detection_Project";
+	public static final String PROJECT_NAME_DIABETES_LATENCY = "Diabetes_Latency_Project";
 	public static final int PROJECT_ID_DIABETES = 1;
 
 	public static final String PROJECT_NAME_DAS = "DAS_Project";
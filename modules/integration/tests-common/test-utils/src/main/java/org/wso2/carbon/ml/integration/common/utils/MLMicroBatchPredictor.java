@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.integration.common.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.concurrent.FutureCallback;
+import org.json.JSONArray;
+import org.wso2.carbon.ml.integration.common.utils.exception.MLHttpClientException;
+
+/**
+ * Scores a stream of events using a model, in micro-batches. A batch is sent as soon as it is full, and whatever is
+ * buffered is also sent every batch window, on a fixed timer that a full batch does not reset. Each batch is sent as
+ * one request through a {@link MLAsyncPredictionClient}. The predictions of a batch are handed to a
+ * {@link PredictionListener} along with its events. The number of scored events and their end-to-end latency, from
+ * being added to being scored, are tracked.
+ */
+public class MLMicroBatchPredictor {
+
+    private static final Log log = LogFactory.getLog(MLMicroBatchPredictor.class);
+
+    private final MLAsyncPredictionClient predictionClient;
+    private final long modelId;
+    private final int batchSize;
+    private final PredictionListener listener;
+    private final ScheduledExecutorService scheduler;
+    private final long startTime = System.currentTimeMillis();
+    private final AtomicLong scoredEventCount = new AtomicLong();
+    private final AtomicLong failedEventCount = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+    private JSONArray events = new JSONArray();
+    private List<Long> arrivalTimes = new ArrayList<Long>();
+
+    /**
+     * Listener of the predictions of the micro-batches.
+     */
+    public interface PredictionListener {
+
+        /**
+         * @param events        Events of a batch
+         * @param predictions   Predictions of the events, in the same order
+         */
+        void onPredictions(JSONArray events, JSONArray predictions);
+
+        /**
+         * @param events    Events of a batch
+         * @param e         Cause of the failure to score the batch
+         */
+        void onFailure(JSONArray events, Exception e);
+    }
+
+    /**
+     * @param predictionClient  Async prediction client to send the batches through
+     * @param modelId           ID of the model
+     * @param batchSize         Maximum number of events in a batch
+     * @param batchWindow       Maximum time in milliseconds an event is buffered before its batch is sent
+     * @param listener          Listener of the predictions
+     */
+    public MLMicroBatchPredictor(MLAsyncPredictionClient predictionClient, final long modelId, int batchSize,
+            long batchWindow, PredictionListener listener) {
+        this.predictionClient = predictionClient;
+        this.modelId = modelId;
+        this.batchSize = batchSize;
+        this.listener = listener;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                // A daemon, so that a predictor which is never closed does not keep the JVM running
+                Thread thread = new Thread(runnable, "ml-micro-batch-predictor-" + modelId);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    flush();
+                } catch (Exception e) {
+                    // An exception would cancel the timer, and with it any further flushes
+                    log.error("Failed to send a batch of events to model: " + modelId, e);
+                }
+            }
+        }, batchWindow, batchWindow, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Add an event to be scored. Sends the current batch once it is full; blocks if the prediction client already has
+     * its maximum number of requests in flight. Must not be called from the listener, see {@link #flush()}.
+     *
+     * @param event JSON array of the feature values of the event
+     * @throws      MLHttpClientException
+     */
+    public synchronized void add(JSONArray event) throws MLHttpClientException {
+        events.put(event);
+        arrivalTimes.add(System.currentTimeMillis());
+        if (events.length() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Send the buffered events, if any, as a batch. If the batch cannot be sent, it is counted as failed and handed to
+     * the listener before the exception is thrown.
+     *
+     * Blocks while holding the lock of this predictor if the prediction client already has its maximum number of
+     * requests in flight. The listener is called on the I/O reactor thread of the prediction client, which is what
+     * completes those requests; a listener which calls {@link #add(JSONArray)} or this method would deadlock once the
+     * limit is reached.
+     *
+     * @throws MLHttpClientException
+     */
+    public synchronized void flush() throws MLHttpClientException {
+        if (events.length() == 0) {
+            return;
+        }
+        final JSONArray batch = events;
+        final List<Long> batchArrivalTimes = arrivalTimes;
+        events = new JSONArray();
+        arrivalTimes = new ArrayList<Long>();
+        try {
+            predict(batch, batchArrivalTimes);
+        } catch (MLHttpClientException e) {
+            batchFailed(batch, e);
+            throw e;
+        } catch (RuntimeException e) {
+            batchFailed(batch, e);
+            throw e;
+        }
+    }
+
+    private void predict(final JSONArray batch, final List<Long> batchArrivalTimes) throws MLHttpClientException {
+        predictionClient.predict(modelId, batch.toString(), new FutureCallback<JSONArray>() {
+
+            @Override
+            public void completed(JSONArray predictions) {
+                long now = System.currentTimeMillis();
+                for (long arrivalTime : batchArrivalTimes) {
+                    long latency = now - arrivalTime;
+                    totalLatency.addAndGet(latency);
+                    long max = maxLatency.get();
+                    while (latency > max && !maxLatency.compareAndSet(max, latency)) {
+                        max = maxLatency.get();
+                    }
+                }
+                scoredEventCount.addAndGet(batchArrivalTimes.size());
+                listener.onPredictions(batch, predictions);
+            }
+
+            @Override
+            public void failed(Exception e) {
+                batchFailed(batch, e);
+            }
+
+            @Override
+            public void cancelled() {
+                batchFailed(batch, new MLHttpClientException("Scoring a batch of model " + modelId
+                        + " was cancelled."));
+            }
+        });
+    }
+
+    private void batchFailed(JSONArray batch, Exception e) {
+        failedEventCount.addAndGet(batch.length());
+        listener.onFailure(batch, e);
+    }
+
+    /**
+     * @return  Number of events scored
+     */
+    public long getScoredEventCount() {
+        return scoredEventCount.get();
+    }
+
+    /**
+     * @return  Number of events of which the batch failed
+     */
+    public long getFailedEventCount() {
+        return failedEventCount.get();
+    }
+
+    /**
+     * @return  Scored events per second since this predictor was created
+     */
+    public double getThroughput() {
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        return elapsedTime == 0 ? 0 : scoredEventCount.get() * 1000.0 / elapsedTime;
+    }
+
+    /**
+     * @return  Mean end-to-end latency of the scored events in milliseconds
+     */
+    public double getMeanLatency() {
+        long scored = scoredEventCount.get();
+        return scored == 0 ? 0 : (double) totalLatency.get() / scored;
+    }
+
+    /**
+     * @return  Maximum end-to-end latency of the scored events in milliseconds
+     */
+    public long getMaxLatency() {
+        return maxLatency.get();
+    }
+
+    /**
+     * Stop the batch window timer and send the buffered events. The prediction client is not closed.
+     *
+     * @throws MLHttpClientException
+     */
+    public void close() throws MLHttpClientException {
+        scheduler.shutdown();
+        flush();
+    }
+}
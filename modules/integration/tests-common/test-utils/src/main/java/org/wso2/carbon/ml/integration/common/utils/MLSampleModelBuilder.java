@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.ml.integration.common.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.json.JSONException;
+import org.wso2.carbon.ml.integration.common.utils.exception.MLHttpClientException;
+
+/**
+ * Builds a model from the dataset and the configurations of a sample, the same way the model-generation.sh script of
+ * the sample does. The steps can be run one at a time, e.g. to time each of them, or all at once through
+ * {@link #buildModel(String)}. The resources created by the builder are deleted by {@link #cleanUp()}.
+ */
+public class MLSampleModelBuilder {
+
+    public static final String MODEL_CONFIG_FILE = "create-model-config";
+    public static final String CUSTOMIZED_FEATURES_FILE = "customized-features";
+    public static final String PREDICTION_TEST_FILE = "prediction-test";
+    private static final String DATASET_VERSION = "1.0";
+
+    private final MLHttpClient mlHttpClient;
+    private final File sampleDirectory;
+    private final long datasetProcessingTimeout;
+    private final long modelBuildingTimeout;
+    private final int statusCheckFrequency;
+    private String datasetName;
+    private int datasetId = -1;
+    private int versionSetId = -1;
+    private int projectId = -1;
+    private int analysisId = -1;
+    private int modelId = -1;
+
+    /**
+     * @param mlHttpClient              Http client of the ML server
+     * @param sampleDirectory           Directory of the sample
+     * @param datasetProcessingTimeout  Maximum time in milliseconds to wait for the dataset to be processed
+     * @param modelBuildingTimeout      Maximum time in milliseconds to wait for the model to be built
+     * @param statusCheckFrequency      Fixed time in milliseconds between two status checks of the dataset or the
+     *                                  model
+     */
+    public MLSampleModelBuilder(MLHttpClient mlHttpClient, File sampleDirectory, long datasetProcessingTimeout,
+            long modelBuildingTimeout, int statusCheckFrequency) {
+        this.mlHttpClient = mlHttpClient;
+        this.sampleDirectory = sampleDirectory;
+        this.datasetProcessingTimeout = datasetProcessingTimeout;
+        this.modelBuildingTimeout = modelBuildingTimeout;
+        this.statusCheckFrequency = statusCheckFrequency;
+    }
+
+    /**
+     * Run all the steps: create the dataset, the project and the analysis, and build the model.
+     *
+     * @param name  Name of the created resources
+     * @return      ID of the built model
+     * @throws      MLHttpClientException
+     * @throws      IOException
+     * @throws      JSONException
+     */
+    public int buildModel(String name) throws MLHttpClientException, IOException, JSONException {
+        createDataset(name);
+        createProject(name);
+        createAnalysis(name);
+        return buildModel();
+    }
+
+    /**
+     * Upload the CSV dataset of the sample and wait until it is processed.
+     *
+     * @param name  Name of the dataset
+     * @return      ID of the version set of the dataset
+     * @throws      MLHttpClientException
+     * @throws      IOException
+     * @throws      JSONException
+     */
+    public int createDataset(String name) throws MLHttpClientException, IOException, JSONException {
+        CloseableHttpResponse response = mlHttpClient.uploadDatasetFromFile(name, DATASET_VERSION,
+                getDatasetFile(sampleDirectory));
+        mlHttpClient.checkStatus(response, "/api/datasets");
+        datasetId = mlHttpClient.getResponseAsJSONObject(response).getInt("id");
+        datasetName = name;
+        versionSetId = mlHttpClient.getVersionSetIdOfDataset(datasetId, DATASET_VERSION);
+        if (!mlHttpClient.checkDatasetStatus(versionSetId, datasetProcessingTimeout, statusCheckFrequency)) {
+            throw new MLHttpClientException("Dataset " + name + " was not processed in " + datasetProcessingTimeout
+                    + " ms");
+        }
+        return versionSetId;
+    }
+
+    /**
+     * Create a project of the dataset.
+     *
+     * @param name  Name of the project
+     * @return      ID of the project
+     * @throws      MLHttpClientException
+     */
+    public int createProject(String name) throws MLHttpClientException {
+        CloseableHttpResponse response = mlHttpClient.createProject(name, datasetName);
+        mlHttpClient.checkStatus(response, "/api/projects");
+        mlHttpClient.releaseResponse(response);
+        projectId = mlHttpClient.getProjectId(name);
+        return projectId;
+    }
+
+    /**
+     * Create an analysis in the project and configure it with the model configuration, the customized features and
+     * the default hyper-parameters of the sample.
+     *
+     * @param name  Name of the analysis
+     * @return      ID of the analysis
+     * @throws      MLHttpClientException
+     * @throws      IOException
+     */
+    public int createAnalysis(String name) throws MLHttpClientException, IOException {
+        CloseableHttpResponse response = mlHttpClient.createAnalysis(name, projectId);
+        mlHttpClient.checkStatus(response, "/api/analyses");
+        mlHttpClient.releaseResponse(response);
+        analysisId = mlHttpClient.getAnalysisId(projectId, name);
+        post("/api/analyses/" + analysisId + "/configurations", readFile(sampleDirectory, MODEL_CONFIG_FILE));
+        post("/api/analyses/" + analysisId + "/features/defaults",
+                readFile(sampleDirectory, CUSTOMIZED_FEATURES_FILE));
+        post("/api/analyses/" + analysisId + "/hyperParams/defaults", null);
+        return analysisId;
+    }
+
+    /**
+     * Build a model of the analysis on the dataset and wait until it is built.
+     *
+     * @return  ID of the model
+     * @throws  MLHttpClientException
+     */
+    public int buildModel() throws MLHttpClientException {
+        CloseableHttpResponse response = mlHttpClient.createModel(analysisId, versionSetId);
+        mlHttpClient.checkStatus(response, "/api/models");
+        String modelName = mlHttpClient.getModelName(response);
+        modelId = mlHttpClient.getModelId(modelName);
+        response = mlHttpClient.buildModel(modelId, modelBuildingTimeout);
+        mlHttpClient.checkStatus(response, "/api/models/" + modelId);
+        mlHttpClient.releaseResponse(response);
+        if (!mlHttpClient.waitForModelStatus(modelName, MLIntegrationTestConstants.MODEL_STATUS_COMPLETE,
+                modelBuildingTimeout, statusCheckFrequency, statusCheckFrequency)) {
+            throw new MLHttpClientException("Model " + modelName + " failed or was not built in "
+                    + modelBuildingTimeout + " ms");
+        }
+        return modelId;
+    }
+
+    /**
+     * Delete the resources created by this builder. All of them are attempted even if one of them fails.
+     *
+     * @throws MLHttpClientException if any of the resources could not be deleted
+     */
+    public void cleanUp() throws MLHttpClientException {
+        MLHttpClientException failure = null;
+        failure = delete("/api/models/" + modelId, modelId, failure);
+        failure = delete("/api/analyses/" + analysisId, analysisId, failure);
+        failure = delete("/api/projects/" + projectId, projectId, failure);
+        failure = delete("/api/datasets/" + datasetId, datasetId, failure);
+        modelId = analysisId = projectId = datasetId = versionSetId = -1;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * @return  ID of the version set of the dataset, or -1 if the dataset has not been created
+     */
+    public int getVersionSetId() {
+        return versionSetId;
+    }
+
+    /**
+     * @return  ID of the project, or -1 if the project has not been created
+     */
+    public int getProjectId() {
+        return projectId;
+    }
+
+    /**
+     * Get the CSV dataset of a sample.
+     *
+     * @param sampleDirectory   Directory of the sample
+     * @return                  Dataset file
+     * @throws                  IOException if the sample has no CSV file
+     */
+    public static File getDatasetFile(File sampleDirectory) throws IOException {
+        File[] files = sampleDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(".csv")) {
+                    return file;
+                }
+            }
+        }
+        throw new IOException("No CSV dataset found in sample: " + sampleDirectory);
+    }
+
+    /**
+     * Read a file of a sample.
+     *
+     * @param sampleDirectory   Directory of the sample
+     * @param fileName          Name of the file
+     * @return                  Content of the file
+     * @throws                  IOException
+     */
+    public static String readFile(File sampleDirectory, String fileName) throws IOException {
+        return new String(Files.readAllBytes(new File(sampleDirectory, fileName).toPath()), StandardCharsets.UTF_8);
+    }
+
+    private void post(String resourcePath, String payload) throws MLHttpClientException {
+        CloseableHttpResponse response = mlHttpClient.doHttpPost(resourcePath, payload);
+        mlHttpClient.checkStatus(response, resourcePath);
+        mlHttpClient.releaseResponse(response);
+    }
+
+    private MLHttpClientException delete(String resourcePath, int id, MLHttpClientException failure) {
+        if (id < 0) {
+            return failure;
+        }
+        try {
+            mlHttpClient.releaseResponse(mlHttpClient.doHttpDelete(resourcePath));
+            return failure;
+        } catch (MLHttpClientException e) {
+            return failure != null ? failure : e;
+        }
+    }
+}
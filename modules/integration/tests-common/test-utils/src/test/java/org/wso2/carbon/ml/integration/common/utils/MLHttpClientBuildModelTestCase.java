@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.ml.integration.common.utils;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Covers the 429 Too Many Requests retry path of {@link MLHttpClient#buildModel(long, long)} against a stub server.
+ */
+public class MLHttpClientBuildModelTestCase {
+
+    private HttpServer server;
+    private MLHttpClient mlHttpClient;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile int rejectedRequests;
+
+    @BeforeMethod
+    public void startServer() throws IOException {
+        requestCount.set(0);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/models/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                if (requestCount.incrementAndGet() <= rejectedRequests) {
+                    // Ask for an immediate retry, which the client must not honour sooner than its back-off
+                    exchange.getResponseHeaders().add(MLIntegrationTestConstants.RETRY_AFTER_HEADER, "0");
+                    exchange.sendResponseHeaders(MLIntegrationTestConstants.HTTP_STATUS_TOO_MANY_REQUESTS, -1);
+                } else {
+                    exchange.sendResponseHeaders(HttpStatus.SC_OK, -1);
+                }
+                exchange.close();
+            }
+        });
+        server.start();
+        // A single pooled connection, so that a retry which does not release the rejected response blocks
+        mlHttpClient = new MLHttpClient("http://localhost:" + server.getAddress().getPort(), "admin", "admin", 1,
+                60000);
+    }
+
+    @AfterMethod
+    public void stopServer() throws MLHttpClientException {
+        mlHttpClient.close();
+        server.stop(0);
+    }
+
+    /**
+     * A build turned away twice is submitted again after the back-off, not the zero Retry-After, and then succeeds.
+     */
+    @Test
+    public void testBuildModelRetriesAfterBackOff() throws MLHttpClientException {
+        rejectedRequests = 2;
+        long start = System.currentTimeMillis();
+        CloseableHttpResponse response = mlHttpClient.buildModel(1, 60000);
+        long elapsed = System.currentTimeMillis() - start;
+        mlHttpClient.releaseResponse(response);
+        assertEquals(HttpStatus.SC_OK, response.getStatusLine().getStatusCode());
+        assertEquals(3, requestCount.get());
+        assertTrue("Retried after " + elapsed + "ms, sooner than the back-off",
+                elapsed >= 3 * MLIntegrationTestConstants.MODEL_BUILD_RETRY_INTERVAL);
+    }
+
+    /**
+     * A build that is still turned away when the timeout expires returns the 429 response.
+     */
+    @Test
+    public void testBuildModelGivesUpAfterTimeout() throws MLHttpClientException {
+        rejectedRequests = Integer.MAX_VALUE;
+        CloseableHttpResponse response = mlHttpClient.buildModel(1,
+                2 * MLIntegrationTestConstants.MODEL_BUILD_RETRY_INTERVAL);
+        mlHttpClient.releaseResponse(response);
+        assertEquals(MLIntegrationTestConstants.HTTP_STATUS_TOO_MANY_REQUESTS,
+                response.getStatusLine().getStatusCode());
+        assertEquals(2, requestCount.get());
+    }
+}
@@ -72,11 +72,12 @@ public class MLTestUtils extends MLBaseTest {
     }
 
     /**
-     * 
+     * Wait until the model is built successfully
+     *
      * @param modelName
      * @param mlHttpclient
-     * @param timeout - max time to check the status
-     * @param frequency - time interval
+     * @param timeout - max time to wait for the status
+     * @param frequency - initial time interval between status checks, if the server does not hold the request
      * @return
      * @throws MLHttpClientException
      * @throws JSONException
@@ -84,62 +85,26 @@ public class MLTestUtils extends MLBaseTest {
      */
     public static boolean checkModelStatusCompleted(String modelName, MLHttpClient mlHttpclient, long timeout,
             int frequency) throws MLHttpClientException, JSONException, IOException {
-        boolean status = false;
-        int totalTime = 0;
-        while (!status && timeout >= totalTime) {
-            CloseableHttpResponse response = mlHttpclient.doHttpGet("/api/models/" + modelName);
-            BufferedReader bufferedReader = new BufferedReader(
-                    new InputStreamReader(response.getEntity().getContent()));
-            JSONObject responseJson = new JSONObject(bufferedReader.readLine());
-            bufferedReader.close();
-            response.close();
-
-            // Checks whether status is equal to Complete.
-            status = responseJson.getString("status").equals("Complete");
-            try {
-                Thread.sleep(frequency);
-            } catch (InterruptedException ignore) {
-            }
-
-            totalTime += frequency;
-        }
-        return status;
+        return mlHttpclient.waitForModelStatus(modelName, MLIntegrationTestConstants.MODEL_STATUS_COMPLETE, timeout,
+                frequency);
     }
 
     /**
+     * Wait until the model building fails
      *
      * @param modelName
      * @param mlHttpclient
-     * @param timeout - max time to check the status
-     * @param frequency - time interval
+     * @param timeout - max time to wait for the status
+     * @param frequency - initial time interval between status checks, if the server does not hold the request
      * @return
      * @throws MLHttpClientException
      * @throws JSONException
      * @throws IOException
      */
-
     public static boolean checkModelStatusFailed(String modelName, MLHttpClient mlHttpclient, long timeout,
             int frequency) throws MLHttpClientException, JSONException, IOException {
-        boolean status = false;
-        int totalTime = 0;
-        while (!status && timeout >= totalTime) {
-            CloseableHttpResponse response = mlHttpclient.doHttpGet("/api/models/" + modelName);
-            BufferedReader bufferedReader = new BufferedReader(
-                    new InputStreamReader(response.getEntity().getContent()));
-            JSONObject responseJson = new JSONObject(bufferedReader.readLine());
-            bufferedReader.close();
-            response.close();
-
-            // Checks whether status is equal to Failed.
-            status = responseJson.getString("status").equals("Failed");
-            try {
-                Thread.sleep(frequency);
-            } catch (InterruptedException ignore) {
-            }
-
-            totalTime += frequency;
-        }
-        return status;
+        return mlHttpclient.waitForModelStatus(modelName, MLIntegrationTestConstants.MODEL_STATUS_FAILED, timeout,
+                frequency);
     }
 
     /**
@@ -159,7 +124,7 @@ public class MLTestUtils extends MLBaseTest {
         response.close();
 
         // Checks whether status is equal to Complete.
-        boolean status = responseJson.getString("status").equals("Complete");
+        boolean status = responseJson.getString("status").equals(MLIntegrationTestConstants.MODEL_STATUS_COMPLETE);
         return status;
     }
 
@@ -20,11 +20,13 @@ package org.wso2.carbon.ml.dataset.test;
 
 import static org.testng.AssertJUnit.assertEquals;
 
+import java.io.File;
 import java.io.IOException;
 
 import javax.ws.rs.core.Response;
 
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.json.JSONException;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
@@ -79,6 +81,22 @@ public class CreateDatasetTestCase extends MLBaseTest {
         response.close();
     }
 
+    /**
+     * Test creating a dataset from a valid tsv file, uploaded as-is. Runs after the DAS dataset is created, so that
+     * the datasets of the other tests keep their known IDs, and is deleted once the class is done.
+     * 
+     * @throws MLHttpClientException
+     * @throws IOException
+     * @throws JSONException
+     */
+    @Test(description = "Create a dataset from a TSV file", dependsOnMethods = "testCreateDatasetFromDAS")
+    public void testCreateDatasetFromTSVFile() throws MLHttpClientException, IOException, JSONException {
+        File file = new File(mlHttpclient.getResourceAbsolutePath(
+                MLIntegrationTestConstants.DIABETES_DATASET_TSV_SAMPLE));
+        createDatasetFromFile(MLIntegrationTestConstants.DATASET_NAME_DIABETES_TSV, "1.0", file,
+                MLIntegrationTestConstants.DATA_FORMAT_TSV, true);
+    }
+
     /**
      * Test Creating a new version of an existing dataset
      * 
@@ -21,6 +21,10 @@ package org.wso2.carbon.ml.lifecycle.test;
 import static org.testng.AssertJUnit.assertEquals;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.ws.rs.core.Response;
 
@@ -31,6 +35,7 @@ import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 import org.wso2.carbon.ml.MLTestUtils;
+import org.wso2.carbon.ml.integration.common.utils.MLAsyncPredictionClient;
 import org.wso2.carbon.ml.integration.common.utils.MLBaseTest;
 import org.wso2.carbon.ml.integration.common.utils.MLHttpClient;
 import org.wso2.carbon.ml.integration.common.utils.MLIntegrationTestConstants;
@@ -137,6 +142,29 @@ public class Dataset11RecommendationTestCase extends MLBaseTest {
         assertEquals(3, recommendations.length());
     }
 
+    /**
+     * A test case for getting product recommendations for several users concurrently.
+     *
+     * @throws MLHttpClientException
+     * @throws InterruptedException
+     * @throws ExecutionException
+     */
+    private void testGetProductRecommendationsConcurrently() throws MLHttpClientException, InterruptedException,
+            ExecutionException {
+        MLAsyncPredictionClient asyncPredictionClient = new MLAsyncPredictionClient(mlHttpclient, 2, 4);
+        try {
+            List<Future<JSONArray>> futures = new ArrayList<Future<JSONArray>>();
+            for (int userId = 1; userId <= 4; userId++) {
+                futures.add(asyncPredictionClient.recommendProducts(modelId, userId, 3, null));
+            }
+            for (Future<JSONArray> future : futures) {
+                assertEquals(3, future.get().length());
+            }
+        } finally {
+            asyncPredictionClient.close();
+        }
+    }
+
     /**
      * A test case for getting product recommendations from invalid model ID.
      *
@@ -169,15 +197,17 @@ public class Dataset11RecommendationTestCase extends MLBaseTest {
      * @throws IOException
      * @throws JSONException
      * @throws InterruptedException
+     * @throws ExecutionException
      */
 
     @Test(description = "Build a Unlabeled collaborative filtering explicit model for recommendation dataset", groups = "createCollaborativeFilteringExplicitRecommendation")
     public void testBuildCollaborativeFilteringExplicit()
-            throws MLHttpClientException, IOException, JSONException, InterruptedException {
+            throws MLHttpClientException, IOException, JSONException, InterruptedException, ExecutionException {
         buildModelWithLearningAlgorithm("COLLABORATIVE_FILTERING", MLIntegrationTestConstants.RECOMMENDATION);
         // Get recommendations for products and users
         testGetProductRecommendation();
         testGetUserRecommendation();
+        testGetProductRecommendationsConcurrently();
 
         // Get product recommendation for invalid model ID
         testGetProductRecommendationInvalidModelId();
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.lifecycle.test;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.MLTestUtils;
+import org.wso2.carbon.ml.integration.common.utils.MLAsyncPredictionClient;
+import org.wso2.carbon.ml.integration.common.utils.MLBaseTest;
+import org.wso2.carbon.ml.integration.common.utils.MLHttpClient;
+import org.wso2.carbon.ml.integration.common.utils.MLIntegrationTestConstants;
+import org.wso2.carbon.ml.integration.common.utils.MLMicroBatchPredictor;
+import org.wso2.carbon.ml.integration.common.utils.exception.MLHttpClientException;
+import org.wso2.carbon.ml.integration.common.utils.exception.MLIntegrationBaseTestException;
+
+/**
+ * This class measures the per-call prediction latency for Diabetes dataset, with and without connection pooling, the
+ * prediction throughput of the async prediction client and the latency of micro-batched scoring of events
+ */
+@Test(groups = "diabetesDatasetPredictionLatency")
+public class Dataset1DiabetesPredictionLatencyTestCase extends MLBaseTest {
+
+    private static final Log log = LogFactory.getLog(Dataset1DiabetesPredictionLatencyTestCase.class);
+    private static final int PREDICTION_CALLS = 50;
+    private static final int ASYNC_PREDICTION_CALLS = 500;
+    private static final int ASYNC_MAX_CONNECTIONS = 4;
+    private static final int ASYNC_MAX_IN_FLIGHT_REQUESTS = 64;
+    private static final int MICRO_BATCH_EVENTS = 1000;
+    private static final int MICRO_BATCH_SIZE = 50;
+    private static final long MICRO_BATCH_WINDOW = 100;
+    private static final String PREDICTION_PAYLOAD = "[[1,89,66,23,94,28.1,0.167,21],[2,197,70,45,543,30.5,0.158,53]]";
+
+    private MLHttpClient mlHttpclient;
+    private MLHttpClient pooledMLHttpclient;
+    private int modelId;
+    private int versionSetId;
+    private int projectId;
+
+    @BeforeClass(alwaysRun = true)
+    public void initTest() throws MLIntegrationBaseTestException, MLHttpClientException, IOException, JSONException {
+        super.init();
+        mlHttpclient = getMLHttpClient();
+        pooledMLHttpclient = new MLHttpClient(instance, userInfo, MLIntegrationTestConstants.MAX_CONNECTIONS_PER_ROUTE,
+                MLIntegrationTestConstants.IDLE_CONNECTION_TIMEOUT);
+        String version = "1.0";
+        int datasetId = createDataset(MLIntegrationTestConstants.DATASET_NAME_DIABETES_LATENCY, version,
+                MLIntegrationTestConstants.DIABETES_DATASET_SAMPLE);
+        versionSetId = getVersionSetId(datasetId, version);
+        isDatasetProcessed(versionSetId, MLIntegrationTestConstants.THREAD_SLEEP_TIME_LARGE, 1000);
+        projectId = createProject(MLIntegrationTestConstants.PROJECT_NAME_DIABETES_LATENCY,
+                MLIntegrationTestConstants.DATASET_NAME_DIABETES_LATENCY);
+    }
+
+    /**
+     * Sends the given number of prediction requests and returns the average latency of a call.
+     *
+     * @param httpClient Http client to be used for the calls
+     * @return Average latency of a call in milliseconds
+     * @throws MLHttpClientException
+     * @throws JSONException
+     */
+    private double measurePredictionLatency(MLHttpClient httpClient) throws MLHttpClientException, JSONException {
+        long totalTime = 0;
+        for (int i = 0; i < PREDICTION_CALLS; i++) {
+            long startTime = System.nanoTime();
+            CloseableHttpResponse response = httpClient.doHttpPost("/api/models/" + modelId + "/predict",
+                    PREDICTION_PAYLOAD);
+            assertEquals("Unexpected response received", Response.Status.OK.getStatusCode(), response
+                    .getStatusLine().getStatusCode());
+            JSONArray predictions = new JSONArray(httpClient.getResponseAsString(response));
+            totalTime += System.nanoTime() - startTime;
+            assertEquals("Expected 2 predictions but received only " + predictions.length(), 2,
+                    predictions.length());
+        }
+        return totalTime / (PREDICTION_CALLS * 1000000.0);
+    }
+
+    /**
+     * Creates a test case for building a Logistic Regression model to be used for the latency measurements
+     *
+     * @throws MLHttpClientException
+     * @throws IOException
+     * @throws JSONException
+     */
+    @Test(description = "Build a Logistic Regression model for Diabetes dataset", groups = "createLogisticRegressionDiabetesLatency")
+    public void testBuildLogisticRegressionModel() throws MLHttpClientException, IOException, JSONException {
+        String algorithmName = "LOGISTIC_REGRESSION";
+        String modelName = MLTestUtils.createModelWithConfigurations(algorithmName,
+                MLIntegrationTestConstants.CLASSIFICATION, MLIntegrationTestConstants.RESPONSE_ATTRIBUTE_DIABETES,
+                MLIntegrationTestConstants.TRAIN_DATA_FRACTION, projectId, versionSetId, mlHttpclient);
+        modelId = mlHttpclient.getModelId(modelName);
+        addModelId(modelId);
+        addAnalysisId(mlHttpclient.getAnalysisId(projectId, algorithmName + versionSetId));
+        CloseableHttpResponse response = mlHttpclient.doHttpPost("/api/models/" + modelId);
+        assertEquals("Unexpected response received", Response.Status.OK.getStatusCode(), response.getStatusLine()
+                .getStatusCode());
+        response.close();
+        // Waiting for model building to end
+        boolean status = MLTestUtils.checkModelStatusCompleted(modelName, mlHttpclient,
+                MLIntegrationTestConstants.THREAD_SLEEP_TIME_LARGE, 1000);
+        assertEquals("Model building did not complete successfully", true, status);
+    }
+
+    /**
+     * Creates a test case for comparing the prediction latency of a new connection per call against pooled
+     * keep-alive connections
+     *
+     * @throws MLHttpClientException
+     * @throws JSONException
+     */
+    @Test(description = "Measure prediction latency with and without connection pooling", groups = "predictionLatencyDiabetes", dependsOnGroups = "createLogisticRegressionDiabetesLatency")
+    public void testPredictionLatency() throws MLHttpClientException, JSONException {
+        // Warm up the model and the pooled connections before measuring
+        measurePredictionLatency(pooledMLHttpclient);
+        double latency = measurePredictionLatency(mlHttpclient);
+        double pooledLatency = measurePredictionLatency(pooledMLHttpclient);
+        log.info(String.format("Average prediction latency over %d calls: %.2f ms without pooling, %.2f ms with "
+                + "pooling", PREDICTION_CALLS, latency, pooledLatency));
+    }
+
+    /**
+     * Creates a test case for sending many prediction requests concurrently through the async prediction client
+     *
+     * @throws MLHttpClientException
+     * @throws InterruptedException
+     * @throws ExecutionException
+     */
+    @Test(description = "Measure prediction throughput of the async prediction client", groups = "asyncPredictionThroughputDiabetes", dependsOnGroups = "predictionLatencyDiabetes")
+    public void testAsyncPredictionThroughput() throws MLHttpClientException, InterruptedException,
+            ExecutionException {
+        MLAsyncPredictionClient asyncPredictionClient = new MLAsyncPredictionClient(mlHttpclient,
+                ASYNC_MAX_CONNECTIONS, ASYNC_MAX_IN_FLIGHT_REQUESTS);
+        try {
+            List<Future<JSONArray>> futures = new ArrayList<Future<JSONArray>>(ASYNC_PREDICTION_CALLS);
+            long startTime = System.nanoTime();
+            for (int i = 0; i < ASYNC_PREDICTION_CALLS; i++) {
+                futures.add(asyncPredictionClient.predict(modelId, PREDICTION_PAYLOAD));
+            }
+            for (Future<JSONArray> future : futures) {
+                JSONArray predictions = future.get();
+                assertEquals("Expected 2 predictions but received only " + predictions.length(), 2,
+                        predictions.length());
+            }
+            double elapsedSeconds = (System.nanoTime() - startTime) / 1000000000.0;
+            log.info(String.format("Async prediction throughput over %d calls: %.2f calls/s", ASYNC_PREDICTION_CALLS,
+                    ASYNC_PREDICTION_CALLS / elapsedSeconds));
+        } finally {
+            asyncPredictionClient.close();
+        }
+    }
+
+    /**
+     * Creates a test case for scoring a stream of events in micro-batches
+     *
+     * @throws MLHttpClientException
+     * @throws InterruptedException
+     * @throws JSONException
+     */
+    @Test(description = "Measure end-to-end latency of micro-batched scoring of events", groups = "microBatchPredictionDiabetes", dependsOnGroups = "asyncPredictionThroughputDiabetes")
+    public void testMicroBatchPrediction() throws MLHttpClientException, InterruptedException, JSONException {
+        MLAsyncPredictionClient asyncPredictionClient = new MLAsyncPredictionClient(mlHttpclient,
+                ASYNC_MAX_CONNECTIONS, ASYNC_MAX_IN_FLIGHT_REQUESTS);
+        final CountDownLatch eventsDone = new CountDownLatch(MICRO_BATCH_EVENTS);
+        MLMicroBatchPredictor microBatchPredictor = new MLMicroBatchPredictor(asyncPredictionClient, modelId,
+                MICRO_BATCH_SIZE, MICRO_BATCH_WINDOW, new MLMicroBatchPredictor.PredictionListener() {
+
+                    @Override
+                    public void onPredictions(JSONArray events, JSONArray predictions) {
+                        countDown(events.length());
+                    }
+
+                    @Override
+                    public void onFailure(JSONArray events, Exception e) {
+                        log.error("Failed to score a batch of " + events.length() + " events", e);
+                        countDown(events.length());
+                    }
+
+                    private void countDown(int events) {
+                        for (int i = 0; i < events; i++) {
+                            eventsDone.countDown();
+                        }
+                    }
+                });
+        try {
+            JSONArray events = new JSONArray(PREDICTION_PAYLOAD);
+            for (int i = 0; i < MICRO_BATCH_EVENTS; i++) {
+                microBatchPredictor.add(events.getJSONArray(i % events.length()));
+            }
+            eventsDone.await(MLIntegrationTestConstants.THREAD_SLEEP_TIME_LARGE, TimeUnit.MILLISECONDS);
+            assertEquals("Not all the events were scored", MICRO_BATCH_EVENTS,
+                    microBatchPredictor.getScoredEventCount());
+            log.info(String.format("Micro-batch scoring of %d events: %.2f events/s, mean latency %.2f ms, max "
+                    + "latency %d ms", MICRO_BATCH_EVENTS, microBatchPredictor.getThroughput(),
+                    microBatchPredictor.getMeanLatency(), microBatchPredictor.getMaxLatency()));
+        } finally {
+            microBatchPredictor.close();
+            asyncPredictionClient.close();
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown() throws InterruptedException, MLHttpClientException {
+        pooledMLHttpclient.close();
+        super.destroy();
+    }
+}
@@ -20,7 +20,9 @@ package org.wso2.carbon.ml.lifecycle.test;
 
 import static org.testng.AssertJUnit.assertEquals;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.StringWriter;
 
 import javax.ws.rs.core.Response;
 
@@ -133,6 +135,19 @@ public class Dataset1DiabetesTestCase extends MLBaseTest {
         assertEquals(7, predictions.length());
     }
 
+    /**
+     * A test case for predicting for the data points of a file in micro-batches, which do not divide the file evenly.
+     * 
+     * @throws MLHttpClientException
+     */
+    private void testPredictDiabetesFromFileInBatches() throws MLHttpClientException {
+        File file = new File(mlHttpclient.getResourceAbsolutePath(MLIntegrationTestConstants.DIABETES_DATASET_TEST));
+        StringWriter writer = new StringWriter();
+        long predictionCount = mlHttpclient.predictFromCSVInBatches(modelId, file, false, 3, writer);
+        assertEquals(7, predictionCount);
+        assertEquals(7, writer.toString().split("\n").length);
+    }
+
     /**
      * A test case for building a model with the given learning algorithm
      * 
@@ -270,6 +285,7 @@ public class Dataset1DiabetesTestCase extends MLBaseTest {
         testPredictDiabetes();
         testPredictDiabetes(true);
         testPredictDiabetesFromFile();
+        testPredictDiabetesFromFileInBatches();
         testExportAsPMML(modelId);
         testPublishAsPMML(modelId);
     }
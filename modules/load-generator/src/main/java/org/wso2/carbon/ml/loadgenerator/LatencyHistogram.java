@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.loadgenerator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread safe histogram of latencies in milliseconds, with buckets of exponentially growing width. Bucket 0 holds
+ * the latencies below 1 ms and bucket i the latencies in [2^(i-1), 2^i) ms, so that the percentiles are accurate to a
+ * factor of two over the whole range from sub-millisecond predictions to hour long model builds.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKET_COUNT = 32;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    /**
+     * Record the latency of a successful operation.
+     *
+     * @param latency   Latency in milliseconds
+     */
+    public void record(long latency) {
+        buckets.incrementAndGet(getBucket(latency));
+        count.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        long max = maxLatency.get();
+        while (latency > max && !maxLatency.compareAndSet(max, latency)) {
+            max = maxLatency.get();
+        }
+    }
+
+    /**
+     * Record a failed operation. Failed operations are not part of the latency distribution.
+     */
+    public void recordError() {
+        errorCount.incrementAndGet();
+    }
+
+    /**
+     * @return  Number of successful operations
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return  Number of failed operations
+     */
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    /**
+     * @return  Mean latency in milliseconds
+     */
+    public double getMean() {
+        long operations = count.get();
+        return operations == 0 ? 0 : (double) totalLatency.get() / operations;
+    }
+
+    /**
+     * @return  Maximum latency in milliseconds
+     */
+    public long getMax() {
+        return maxLatency.get();
+    }
+
+    /**
+     * Get an upper bound of a percentile of the latencies.
+     *
+     * @param percentile    Percentile, between 0 and 100
+     * @return              Upper bound of the bucket holding the percentile in milliseconds, capped at the maximum
+     */
+    public long getPercentile(double percentile) {
+        long operations = count.get();
+        if (operations == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(operations * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(getUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * @return  Number of operations in each bucket
+     */
+    public long[] getBuckets() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * @param bucket    Index of a bucket
+     * @return          Exclusive upper bound of the bucket in milliseconds
+     */
+    public static long getUpperBound(int bucket) {
+        return 1L << bucket;
+    }
+
+    private static int getBucket(long latency) {
+        if (latency < 1) {
+            return 0;
+        }
+        return Math.min(64 - Long.numberOfLeadingZeros(latency), BUCKET_COUNT - 1);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.loadgenerator;
+
+import java.io.File;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.wso2.carbon.ml.integration.common.utils.MLHttpClient;
+import org.wso2.carbon.ml.integration.common.utils.MLIntegrationTestConstants;
+import org.wso2.carbon.ml.integration.common.utils.MLSampleModelBuilder;
+import org.wso2.carbon.ml.integration.common.utils.exception.MLHttpClientException;
+
+/**
+ * Runs the ML life-cycle of a sample as one user: create dataset, project and analysis, build a model and predict
+ * using it. The latency of each stage is recorded in the histogram of the stage. A failed stage is recorded as an
+ * error and ends the iteration; the resources created in an iteration are deleted at its end.
+ */
+public class LifecycleWorker implements Runnable {
+
+    private static final Log log = LogFactory.getLog(LifecycleWorker.class);
+    private static final long DATASET_PROCESSING_TIMEOUT = 600000;
+    private static final long MODEL_BUILDING_TIMEOUT = 3600000;
+    // Polled on a tight fixed interval, so that the latencies of the stages are not rounded up to a polling schedule
+    private static final int STATUS_CHECK_FREQUENCY = 100;
+
+    private final String userName;
+    private final String password;
+    private final String runId;
+    private final File sampleDirectory;
+    private final int iterations;
+    private final int predictions;
+    private final Map<Stage, LatencyHistogram> histograms;
+
+    /**
+     * @param userName          Name of the user to run the life-cycle as
+     * @param password          Password of the user
+     * @param runId             Suffix of the names of the created resources, to keep them unique across runs
+     * @param sampleDirectory   Directory of the sample of which the dataset and the configurations are used
+     * @param iterations        Number of times the life-cycle is run
+     * @param predictions       Number of prediction requests sent to each built model
+     * @param histograms        Latency histograms of the stages
+     */
+    public LifecycleWorker(String userName, String password, String runId, File sampleDirectory, int iterations,
+            int predictions, Map<Stage, LatencyHistogram> histograms) {
+        this.userName = userName;
+        this.password = password;
+        this.runId = runId;
+        this.sampleDirectory = sampleDirectory;
+        this.iterations = iterations;
+        this.predictions = predictions;
+        this.histograms = histograms;
+    }
+
+    @Override
+    public void run() {
+        MLHttpClient mlHttpClient = new MLHttpClient(LoadGeneratorConfiguration.getServerUrl(), userName, password,
+                MLIntegrationTestConstants.MAX_CONNECTIONS_PER_ROUTE,
+                MLIntegrationTestConstants.IDLE_CONNECTION_TIMEOUT);
+        try {
+            for (int i = 0; i < iterations; i++) {
+                runIteration(mlHttpClient, "load-" + userName.replaceAll("[^A-Za-z0-9]", "-") + "-" + runId + "-" + i);
+            }
+        } finally {
+            try {
+                mlHttpClient.close();
+            } catch (MLHttpClientException e) {
+                log.warn("Failed to close the http client of user: " + userName, e);
+            }
+        }
+    }
+
+    private void runIteration(MLHttpClient mlHttpClient, String name) {
+        MLSampleModelBuilder modelBuilder = new MLSampleModelBuilder(mlHttpClient, sampleDirectory,
+                DATASET_PROCESSING_TIMEOUT, MODEL_BUILDING_TIMEOUT, STATUS_CHECK_FREQUENCY);
+        Stage stage = Stage.CREATE_DATASET;
+        try {
+            long startTime = System.currentTimeMillis();
+            modelBuilder.createDataset(name);
+            startTime = record(stage, startTime);
+
+            stage = Stage.CREATE_PROJECT;
+            modelBuilder.createProject(name);
+            startTime = record(stage, startTime);
+
+            stage = Stage.CREATE_ANALYSIS;
+            modelBuilder.createAnalysis(name);
+            startTime = record(stage, startTime);
+
+            stage = Stage.BUILD_MODEL;
+            int modelId = modelBuilder.buildModel();
+            record(stage, startTime);
+
+            stage = Stage.PREDICT;
+            String resourcePath = "/api/models/" + modelId + "/predict";
+            String payload = MLSampleModelBuilder.readFile(sampleDirectory, MLSampleModelBuilder.PREDICTION_TEST_FILE);
+            for (int i = 0; i < predictions; i++) {
+                startTime = System.currentTimeMillis();
+                CloseableHttpResponse response = mlHttpClient.doHttpPost(resourcePath, payload);
+                mlHttpClient.checkStatus(response, resourcePath);
+                mlHttpClient.releaseResponse(response);
+                record(stage, startTime);
+            }
+        } catch (Exception e) {
+            histograms.get(stage).recordError();
+            log.warn("Stage " + stage + " of " + name + " failed: " + e.getMessage());
+        } finally {
+            try {
+                modelBuilder.cleanUp();
+            } catch (MLHttpClientException e) {
+                log.warn("Failed to delete the resources of " + name + " of user: " + userName, e);
+            }
+        }
+    }
+
+    private long record(Stage stage, long startTime) {
+        long endTime = System.currentTimeMillis();
+        histograms.get(stage).record(endTime - startTime);
+        return endTime;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.loadgenerator;
+
+import java.io.File;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Entry point of the load generator. Runs the ML life-cycle concurrently as each of the configured users of each of
+ * the configured tenants and reports the throughput and the latency distribution of each stage of the life-cycle.
+ */
+public class LoadGenerator {
+
+    private static final Log log = LogFactory.getLog(LoadGenerator.class);
+    private static final double[] PERCENTILES = { 50, 90, 99 };
+
+    public static void main(String[] args) throws InterruptedException {
+        List<String> userNames = LoadGeneratorConfiguration.getUserNames();
+        File sampleDirectory = LoadGeneratorConfiguration.getSampleDirectory();
+        String runId = String.valueOf(System.currentTimeMillis());
+        Map<Stage, LatencyHistogram> histograms = new EnumMap<Stage, LatencyHistogram>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            histograms.put(stage, new LatencyHistogram());
+        }
+        log.info("Running the life-cycle of sample " + sampleDirectory.getName() + " as " + userNames.size()
+                + " users: " + userNames);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(userNames.size());
+        long startTime = System.currentTimeMillis();
+        for (String userName : userNames) {
+            executorService.execute(new LifecycleWorker(userName, LoadGeneratorConfiguration.getPassword(), runId,
+                    sampleDirectory, LoadGeneratorConfiguration.getIterations(),
+                    LoadGeneratorConfiguration.getPredictions(), histograms));
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        long elapsedTime = System.currentTimeMillis() - startTime;
+
+        log.info(getReport(histograms, elapsedTime));
+    }
+
+    private static String getReport(Map<Stage, LatencyHistogram> histograms, long elapsedTime) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Load generator finished in %.1f s%n", elapsedTime / 1000.0));
+        report.append(String.format("%-16s %8s %8s %12s %10s %10s %10s %10s %10s%n", "stage", "count", "errors",
+                "ops/s", "mean(ms)", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)"));
+        for (Map.Entry<Stage, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            report.append(String.format("%-16s %8d %8d %12.2f %10.1f", entry.getKey(), histogram.getCount(),
+                    histogram.getErrorCount(), histogram.getCount() * 1000.0 / elapsedTime, histogram.getMean()));
+            for (double percentile : PERCENTILES) {
+                report.append(String.format(" %10d", histogram.getPercentile(percentile)));
+            }
+            report.append(String.format(" %10d%n", histogram.getMax()));
+        }
+        for (Map.Entry<Stage, LatencyHistogram> entry : histograms.entrySet()) {
+            report.append(String.format("%nLatency histogram of %s%n", entry.getKey()));
+            long[] buckets = entry.getValue().getBuckets();
+            for (int i = 0; i < buckets.length; i++) {
+                if (buckets[i] > 0) {
+                    report.append(String.format("  < %10d ms: %d%n", LatencyHistogram.getUpperBound(i), buckets[i]));
+                }
+            }
+        }
+        return report.toString();
+    }
+}
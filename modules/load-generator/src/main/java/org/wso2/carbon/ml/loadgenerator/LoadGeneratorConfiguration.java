@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.loadgenerator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class reads the load generator configuration from system properties.
+ */
+public class LoadGeneratorConfiguration {
+
+    public static final String SUPER_TENANT_DOMAIN = "carbon.super";
+
+    public static final String SERVER_URL_PROPERTY = "ml.server.url";
+    public static final String TENANTS_PROPERTY = "ml.load.tenants";
+    public static final String USERS_PROPERTY = "ml.load.users";
+    public static final String PASSWORD_PROPERTY = "ml.load.password";
+    public static final String SAMPLE_PROPERTY = "ml.load.sample";
+    public static final String SAMPLES_DIR_PROPERTY = "ml.samples.dir";
+    public static final String ITERATIONS_PROPERTY = "ml.load.iterations";
+    public static final String PREDICTIONS_PROPERTY = "ml.load.predictions";
+
+    public static final String DEFAULT_SERVER_URL = "https://localhost:9443";
+    public static final String DEFAULT_TENANTS = SUPER_TENANT_DOMAIN;
+    public static final String DEFAULT_USERS = "admin";
+    public static final String DEFAULT_PASSWORD = "admin";
+    public static final String DEFAULT_SAMPLE = "logistic-regression";
+    public static final String DEFAULT_SAMPLES_DIR = "../samples/default";
+    public static final int DEFAULT_ITERATIONS = 5;
+    public static final int DEFAULT_PREDICTIONS = 100;
+
+    private LoadGeneratorConfiguration() {
+    }
+
+    /**
+     * @return  URL of the ML server
+     */
+    public static String getServerUrl() {
+        return System.getProperty(SERVER_URL_PROPERTY, DEFAULT_SERVER_URL);
+    }
+
+    /**
+     * Get the users to run the life-cycle as. Each of the configured users is taken from each of the configured
+     * tenants, i.e. N tenants and M users give N x M users. Users of tenants other than the super tenant are
+     * qualified with the tenant domain, e.g. user1@tenant1.com.
+     *
+     * @return  Names of the users
+     */
+    public static List<String> getUserNames() {
+        List<String> userNames = new ArrayList<String>();
+        for (String tenant : getList(TENANTS_PROPERTY, DEFAULT_TENANTS)) {
+            for (String user : getList(USERS_PROPERTY, DEFAULT_USERS)) {
+                if (SUPER_TENANT_DOMAIN.equals(tenant)) {
+                    userNames.add(user);
+                } else {
+                    userNames.add(user + "@" + tenant);
+                }
+            }
+        }
+        return userNames;
+    }
+
+    /**
+     * @return  Password of the users
+     */
+    public static String getPassword() {
+        return System.getProperty(PASSWORD_PROPERTY, DEFAULT_PASSWORD);
+    }
+
+    /**
+     * @return  Directory of the sample of which the dataset and the configurations are used
+     */
+    public static File getSampleDirectory() {
+        return new File(System.getProperty(SAMPLES_DIR_PROPERTY, DEFAULT_SAMPLES_DIR), System.getProperty(
+                SAMPLE_PROPERTY, DEFAULT_SAMPLE)).getAbsoluteFile();
+    }
+
+    /**
+     * @return  Number of times each user runs the life-cycle
+     */
+    public static int getIterations() {
+        return Integer.getInteger(ITERATIONS_PROPERTY, DEFAULT_ITERATIONS);
+    }
+
+    /**
+     * @return  Number of prediction requests sent to each built model
+     */
+    public static int getPredictions() {
+        return Integer.getInteger(PREDICTIONS_PROPERTY, DEFAULT_PREDICTIONS);
+    }
+
+    private static List<String> getList(String property, String defaultValue) {
+        List<String> values = new ArrayList<String>();
+        for (String value : System.getProperty(property, defaultValue).split(",")) {
+            if (!value.trim().isEmpty()) {
+                values.add(value.trim());
+            }
+        }
+        return values;
+    }
+}
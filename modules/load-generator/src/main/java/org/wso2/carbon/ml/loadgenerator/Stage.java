@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.loadgenerator;
+
+/**
+ * Stages of the ML life-cycle run by the load generator, in the order they are run.
+ */
+public enum Stage {
+
+    /** Upload a dataset and wait until its version is processed */
+    CREATE_DATASET,
+    /** Create a project for the dataset */
+    CREATE_PROJECT,
+    /** Create and configure an analysis of the project */
+    CREATE_ANALYSIS,
+    /** Create a model of the analysis and wait until it is built */
+    BUILD_MODEL,
+    /** Predict using the built model */
+    PREDICT
+}
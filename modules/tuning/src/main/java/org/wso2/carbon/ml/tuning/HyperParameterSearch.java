@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.tuning;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.wso2.carbon.ml.integration.common.utils.MLHttpClient;
+import org.wso2.carbon.ml.integration.common.utils.MLSampleModelBuilder;
+
+/**
+ * Entry point of the hyper-parameter search. Uploads the dataset of a sample once, builds a model for each drawn
+ * candidate of hyper-parameters, at most a configured number at a time, and reports the leaderboard of the candidates
+ * ranked by a field of the model summary. Only the best model is kept; the models of the other candidates are deleted.
+ */
+public class HyperParameterSearch {
+
+    private static final Log log = LogFactory.getLog(HyperParameterSearch.class);
+    private static final long DATASET_PROCESSING_TIMEOUT = 600000;
+    private static final int STATUS_CHECK_FREQUENCY = 1000;
+    // Successive halving starts on a quarter of the training data and doubles it in each rung
+    private static final int HALVING_RUNGS = 3;
+
+    public static void main(String[] args) throws Exception {
+        File sampleDirectory = TuningConfiguration.getSampleDirectory();
+        String name = "search-" + sampleDirectory.getName() + "-" + System.currentTimeMillis();
+        MLHttpClient mlHttpClient = TuningConfiguration.createMLHttpClient();
+        // Only the dataset and the project of the sample are created through the builder; each trial has its own
+        // analysis and model
+        MLSampleModelBuilder modelBuilder = new MLSampleModelBuilder(mlHttpClient, sampleDirectory,
+                DATASET_PROCESSING_TIMEOUT, TrialRunner.MODEL_BUILDING_TIMEOUT, STATUS_CHECK_FREQUENCY);
+        Trial best = null;
+        try {
+            int versionSetId = modelBuilder.createDataset(name);
+            int projectId = modelBuilder.createProject(name);
+
+            String modelConfiguration = MLSampleModelBuilder.readFile(sampleDirectory,
+                    MLSampleModelBuilder.MODEL_CONFIG_FILE);
+            TrialRunner trialRunner = new TrialRunner(mlHttpClient, projectId, versionSetId, modelConfiguration,
+                    MLSampleModelBuilder.readFile(sampleDirectory, MLSampleModelBuilder.CUSTOMIZED_FEATURES_FILE),
+                    MLSampleModelBuilder.readFile(sampleDirectory, TuningConfiguration.HYPER_PARAMETERS_FILE),
+                    TuningConfiguration.getMetric());
+            HyperParameterSpace space = new HyperParameterSpace(MLSampleModelBuilder.readFile(sampleDirectory,
+                    TuningConfiguration.HYPER_PARAMETER_SPACE_FILE));
+            List<Trial> leaderboard = search(trialRunner, space, name, getTrainDataFraction(modelConfiguration));
+
+            log.info(getReport(leaderboard));
+            for (Trial trial : leaderboard) {
+                if (best == null && trial.isSuccessful()) {
+                    best = trial;
+                } else {
+                    trialRunner.delete(trial);
+                }
+            }
+            if (best != null) {
+                log.info("Kept the best model [id] " + best.getModelId() + " with hyper-parameters "
+                        + best.getHyperParameters());
+            }
+        } finally {
+            if (best == null) {
+                modelBuilder.cleanUp();
+            }
+            mlHttpClient.close();
+        }
+    }
+
+    /**
+     * Run the configured search strategy.
+     *
+     * @return Trials of the last round, ranked from the best to the worst; failed trials last
+     */
+    private static List<Trial> search(TrialRunner trialRunner, HyperParameterSpace space, String name,
+            double trainDataFraction) throws InterruptedException {
+        SearchStrategy strategy = TuningConfiguration.getStrategy();
+        Random random = new Random(TuningConfiguration.getSeed());
+        switch (strategy) {
+        case GRID:
+            return runRound(trialRunner, space.getGrid(), name + "-", trainDataFraction);
+        case RANDOM:
+            return runRound(trialRunner, space.sample(TuningConfiguration.getTrials(), random), name + "-",
+                    trainDataFraction);
+        default:
+            List<Map<String, String>> candidates = space.sample(TuningConfiguration.getTrials(), random);
+            List<Trial> ranked = null;
+            for (int rung = 0; rung < HALVING_RUNGS; rung++) {
+                double fraction = trainDataFraction / (1 << (HALVING_RUNGS - 1 - rung));
+                ranked = runRound(trialRunner, candidates, name + "-r" + rung + "-", fraction);
+                if (rung == HALVING_RUNGS - 1) {
+                    break;
+                }
+                // Keep the better half of the candidates and drop the models of this rung
+                int survivors = Math.max(1, (candidates.size() + 1) / 2);
+                candidates = new ArrayList<Map<String, String>>();
+                for (Trial trial : ranked) {
+                    if (trial.isSuccessful() && candidates.size() < survivors) {
+                        candidates.add(trial.getHyperParameters());
+                    }
+                    trialRunner.delete(trial);
+                }
+                log.info("Rung " + rung + " on " + fraction + " of the data done, " + candidates.size()
+                        + " candidates go on");
+                if (candidates.isEmpty()) {
+                    return ranked;
+                }
+            }
+            return ranked;
+        }
+    }
+
+    /**
+     * Build the models of the given candidates, at most the configured number at a time, and rank them.
+     */
+    private static List<Trial> runRound(final TrialRunner trialRunner, List<Map<String, String>> candidates,
+            String namePrefix, double trainDataFraction) throws InterruptedException {
+        List<Trial> trials = new ArrayList<Trial>();
+        ExecutorService executorService = Executors.newFixedThreadPool(TuningConfiguration.getConcurrency());
+        for (Map<String, String> candidate : candidates) {
+            final Trial trial = new Trial(namePrefix + trials.size(), candidate, trainDataFraction);
+            trials.add(trial);
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    trialRunner.run(trial);
+                }
+            });
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        final int order = TuningConfiguration.isMinimize() ? 1 : -1;
+        Collections.sort(trials, new Comparator<Trial>() {
+            @Override
+            public int compare(Trial trial1, Trial trial2) {
+                if (trial1.isSuccessful() != trial2.isSuccessful()) {
+                    return trial1.isSuccessful() ? -1 : 1;
+                }
+                if (!trial1.isSuccessful()) {
+                    return 0;
+                }
+                return order * Double.compare(trial1.getScore(), trial2.getScore());
+            }
+        });
+        return trials;
+    }
+
+    private static String getReport(List<Trial> leaderboard) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Leaderboard by %s (%s is better)%n", TuningConfiguration.getMetric(),
+                TuningConfiguration.isMinimize() ? "lower" : "higher"));
+        int rank = 1;
+        for (Trial trial : leaderboard) {
+            if (trial.isSuccessful()) {
+                report.append(String.format("%3d. %-12.6f model %-6d %s%n", rank++, trial.getScore(),
+                        trial.getModelId(), trial.getHyperParameters()));
+            } else {
+                report.append(String.format("  -  failed: %s %s%n", trial.getError(), trial.getHyperParameters()));
+            }
+        }
+        return report.toString();
+    }
+
+    private static double getTrainDataFraction(String modelConfiguration) throws JSONException {
+        JSONArray configuration = new JSONArray(modelConfiguration);
+        for (int i = 0; i < configuration.length(); i++) {
+            JSONObject keyValue = configuration.getJSONObject(i);
+            if ("trainDataFraction".equals(keyValue.getString("key"))) {
+                return Double.parseDouble(keyValue.getString("value"));
+            }
+        }
+        return 1;
+    }
+
+}
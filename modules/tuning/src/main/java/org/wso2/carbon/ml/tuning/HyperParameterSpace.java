@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.tuning;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Discrete search space of hyper-parameters, read from a JSON array of the form
+ * [{"key":"Learning_Rate","values":["0.001","0.01"]}, ...]. Hyper-parameters which are not in the space keep the
+ * values of the hyper-parameters file of the sample.
+ */
+public class HyperParameterSpace {
+
+    private final Map<String, List<String>> values = new LinkedHashMap<String, List<String>>();
+
+    /**
+     * @param space JSON array of hyper-parameters and their candidate values
+     * @throws JSONException
+     */
+    public HyperParameterSpace(String space) throws JSONException {
+        JSONArray parameters = new JSONArray(space);
+        for (int i = 0; i < parameters.length(); i++) {
+            JSONObject parameter = parameters.getJSONObject(i);
+            JSONArray parameterValues = parameter.getJSONArray("values");
+            List<String> candidates = new ArrayList<String>();
+            for (int j = 0; j < parameterValues.length(); j++) {
+                candidates.add(parameterValues.getString(j));
+            }
+            values.put(parameter.getString("key"), candidates);
+        }
+    }
+
+    /**
+     * @return Every combination of the values of the hyper-parameters
+     */
+    public List<Map<String, String>> getGrid() {
+        List<Map<String, String>> grid = new ArrayList<Map<String, String>>();
+        grid.add(new LinkedHashMap<String, String>());
+        for (Map.Entry<String, List<String>> entry : values.entrySet()) {
+            List<Map<String, String>> expanded = new ArrayList<Map<String, String>>();
+            for (Map<String, String> combination : grid) {
+                for (String value : entry.getValue()) {
+                    Map<String, String> extended = new LinkedHashMap<String, String>(combination);
+                    extended.put(entry.getKey(), value);
+                    expanded.add(extended);
+                }
+            }
+            grid = expanded;
+        }
+        return grid;
+    }
+
+    /**
+     * Draw distinct combinations of the values of the hyper-parameters at random.
+     *
+     * @param count     Number of combinations, capped at the size of the grid
+     * @param random    Source of randomness
+     * @return          Drawn combinations
+     */
+    public List<Map<String, String>> sample(int count, Random random) {
+        List<Map<String, String>> grid = getGrid();
+        Collections.shuffle(grid, random);
+        return new ArrayList<Map<String, String>>(grid.subList(0, Math.min(count, grid.size())));
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.tuning;
+
+/**
+ * Strategies of drawing and evaluating hyper-parameter candidates.
+ */
+public enum SearchStrategy {
+
+    /** Build a model for every combination of the values in the search space */
+    GRID,
+    /** Build a model for a number of randomly drawn combinations */
+    RANDOM,
+    /**
+     * Build models for a number of randomly drawn combinations on a quarter of the training data, then keep building
+     * the better half of them on twice as much data until the full training data is used
+     */
+    SUCCESSIVE_HALVING
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.tuning;
+
+import java.util.Map;
+
+/**
+ * A model built with a candidate of hyper-parameters, on a fraction of the training data, and its score.
+ */
+public class Trial {
+
+    private final String name;
+    private final Map<String, String> hyperParameters;
+    private final double trainDataFraction;
+    private int analysisId = -1;
+    private int modelId = -1;
+    private double score = Double.NaN;
+    private String error;
+
+    /**
+     * @param name              Name of the analysis of the trial
+     * @param hyperParameters   Candidate values of the searched hyper-parameters
+     * @param trainDataFraction Fraction of the dataset the model is trained on
+     */
+    public Trial(String name, Map<String, String> hyperParameters, double trainDataFraction) {
+        this.name = name;
+        this.hyperParameters = hyperParameters;
+        this.trainDataFraction = trainDataFraction;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, String> getHyperParameters() {
+        return hyperParameters;
+    }
+
+    public double getTrainDataFraction() {
+        return trainDataFraction;
+    }
+
+    public int getAnalysisId() {
+        return analysisId;
+    }
+
+    public void setAnalysisId(int analysisId) {
+        this.analysisId = analysisId;
+    }
+
+    public int getModelId() {
+        return modelId;
+    }
+
+    public void setModelId(int modelId) {
+        this.modelId = modelId;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * @return true if the model was built and scored
+     */
+    public boolean isSuccessful() {
+        return error == null && !Double.isNaN(score);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.tuning;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.wso2.carbon.ml.integration.common.utils.MLHttpClient;
+import org.wso2.carbon.ml.integration.common.utils.MLIntegrationTestConstants;
+import org.wso2.carbon.ml.integration.common.utils.exception.MLHttpClientException;
+
+/**
+ * Builds the model of a trial in an analysis of its own and scores it by a field of the model summary. Trials may be
+ * run concurrently from several threads.
+ */
+public class TrialRunner {
+
+    private static final Log log = LogFactory.getLog(TrialRunner.class);
+    static final long MODEL_BUILDING_TIMEOUT = 3600000;
+    private static final int STATUS_CHECK_FREQUENCY = 1000;
+    private static final String TRAIN_DATA_FRACTION = "trainDataFraction";
+    private static final String ALGORITHM_NAME = "algorithmName";
+
+    private final MLHttpClient mlHttpClient;
+    private final int projectId;
+    private final int versionSetId;
+    private final String modelConfiguration;
+    private final String customizedFeatures;
+    private final String defaultHyperParameters;
+    private final String metric;
+
+    /**
+     * @param mlHttpClient              Pooled http client of the ML server
+     * @param projectId                 ID of the project the analyses of the trials are created in
+     * @param versionSetId              ID of the dataset version the models are built on
+     * @param modelConfiguration        Model configuration of the sample, as a JSON array of keys and values
+     * @param customizedFeatures        Customized features of the sample
+     * @param defaultHyperParameters    Hyper-parameters of the sample, as a JSON array of keys and values
+     * @param metric                    Name of the model summary field by which the trials are scored
+     */
+    public TrialRunner(MLHttpClient mlHttpClient, int projectId, int versionSetId, String modelConfiguration,
+            String customizedFeatures, String defaultHyperParameters, String metric) {
+        this.mlHttpClient = mlHttpClient;
+        this.projectId = projectId;
+        this.versionSetId = versionSetId;
+        this.modelConfiguration = modelConfiguration;
+        this.customizedFeatures = customizedFeatures;
+        this.defaultHyperParameters = defaultHyperParameters;
+        this.metric = metric;
+    }
+
+    /**
+     * Build and score the model of a trial. A failure is recorded as the error of the trial.
+     *
+     * @param trial Trial to be run
+     */
+    public void run(Trial trial) {
+        try {
+            CloseableHttpResponse response = mlHttpClient.createAnalysis(trial.getName(), projectId);
+            mlHttpClient.checkStatus(response, "/api/analyses");
+            mlHttpClient.releaseResponse(response);
+            int analysisId = mlHttpClient.getAnalysisId(projectId, trial.getName());
+            trial.setAnalysisId(analysisId);
+            JSONArray configuration = new JSONArray(modelConfiguration);
+            setValues(configuration, Collections.singletonMap(TRAIN_DATA_FRACTION,
+                    String.valueOf(trial.getTrainDataFraction())));
+            String algorithmName = getValue(configuration, ALGORITHM_NAME);
+            post("/api/analyses/" + analysisId + "/configurations", configuration.toString());
+            post("/api/analyses/" + analysisId + "/features/defaults", customizedFeatures);
+            JSONArray hyperParameters = new JSONArray(defaultHyperParameters);
+            setValues(hyperParameters, trial.getHyperParameters());
+            post("/api/analyses/" + analysisId + "/hyperParams?algorithmName=" + algorithmName,
+                    hyperParameters.toString());
+
+            response = mlHttpClient.createModel(analysisId, versionSetId);
+            mlHttpClient.checkStatus(response, "/api/models");
+            String modelName = mlHttpClient.getModelName(response);
+            trial.setModelId(mlHttpClient.getModelId(modelName));
+            response = mlHttpClient.buildModel(trial.getModelId(), MODEL_BUILDING_TIMEOUT);
+            mlHttpClient.checkStatus(response, "/api/models/" + trial.getModelId());
+            mlHttpClient.releaseResponse(response);
+            if (!mlHttpClient.waitForModelStatus(modelName, MLIntegrationTestConstants.MODEL_STATUS_COMPLETE,
+                    MODEL_BUILDING_TIMEOUT, STATUS_CHECK_FREQUENCY)) {
+                throw new MLHttpClientException("Model " + modelName + " failed or was not built in "
+                        + MODEL_BUILDING_TIMEOUT + " ms");
+            }
+
+            response = mlHttpClient.doHttpGet("/api/models/" + trial.getModelId() + "/summary");
+            mlHttpClient.checkStatus(response, "/api/models/" + trial.getModelId() + "/summary");
+            Double score = findMetric(mlHttpClient.getResponseAsJSONObject(response));
+            if (score == null) {
+                throw new MLHttpClientException("Summary of model " + modelName + " has no " + metric);
+            }
+            trial.setScore(score);
+            log.info("Trial " + trial.getName() + " " + trial.getHyperParameters() + " on "
+                    + trial.getTrainDataFraction() + " of the data scored " + metric + " = " + score);
+        } catch (Exception e) {
+            trial.setError(e.getMessage());
+            log.warn("Trial " + trial.getName() + " " + trial.getHyperParameters() + " failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Delete the model and the analysis of a trial.
+     *
+     * @param trial Trial to be deleted
+     */
+    public void delete(Trial trial) {
+        try {
+            if (trial.getModelId() >= 0) {
+                mlHttpClient.releaseResponse(mlHttpClient.doHttpDelete("/api/models/" + trial.getModelId()));
+            }
+            if (trial.getAnalysisId() >= 0) {
+                mlHttpClient.releaseResponse(mlHttpClient.doHttpDelete("/api/analyses/" + trial.getAnalysisId()));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to delete the model and the analysis of trial " + trial.getName(), e);
+        }
+    }
+
+    private static String getValue(JSONArray keyValues, String key) throws JSONException {
+        for (int i = 0; i < keyValues.length(); i++) {
+            JSONObject keyValue = keyValues.getJSONObject(i);
+            if (key.equals(keyValue.getString("key"))) {
+                return keyValue.getString("value");
+            }
+        }
+        throw new JSONException("No " + key + " found in " + keyValues);
+    }
+
+    /**
+     * Set the values of keys in a JSON array of keys and values, adding the keys which are missing.
+     */
+    private static void setValues(JSONArray keyValues, Map<String, String> values) throws JSONException {
+        Set<String> updated = new HashSet<String>();
+        for (int i = 0; i < keyValues.length(); i++) {
+            JSONObject keyValue = keyValues.getJSONObject(i);
+            String key = keyValue.getString("key");
+            if (values.containsKey(key)) {
+                keyValue.put("value", values.get(key));
+                updated.add(key);
+            }
+        }
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            if (!updated.contains(entry.getKey())) {
+                keyValues.put(new JSONObject().put("key", entry.getKey()).put("value", entry.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Find the metric in the model summary, at any depth.
+     *
+     * @return Value of the metric, or null if it is not in the summary
+     */
+    private Double findMetric(Object json) throws JSONException {
+        if (json instanceof JSONObject) {
+            JSONObject object = (JSONObject) json;
+            if (object.has(metric)) {
+                Object value = object.get(metric);
+                return value instanceof Number ? ((Number) value).doubleValue() : Double.valueOf(value.toString());
+            }
+            Iterator<?> keys = object.keys();
+            while (keys.hasNext()) {
+                Double value = findMetric(object.get(keys.next().toString()));
+                if (value != null) {
+                    return value;
+                }
+            }
+        } else if (json instanceof JSONArray) {
+            JSONArray array = (JSONArray) json;
+            for (int i = 0; i < array.length(); i++) {
+                Double value = findMetric(array.get(i));
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void post(String resourcePath, String payload) throws MLHttpClientException {
+        CloseableHttpResponse response = mlHttpClient.doHttpPost(resourcePath, payload);
+        mlHttpClient.checkStatus(response, resourcePath);
+        mlHttpClient.releaseResponse(response);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.tuning;
+
+import java.io.File;
+
+import org.wso2.carbon.ml.integration.common.utils.MLHttpClient;
+import org.wso2.carbon.ml.integration.common.utils.MLIntegrationTestConstants;
+
+/**
+ * This class reads the hyper-parameter search configuration from system properties.
+ */
+public class TuningConfiguration {
+
+    public static final String SERVER_URL_PROPERTY = "ml.server.url";
+    public static final String USERNAME_PROPERTY = "ml.username";
+    public static final String PASSWORD_PROPERTY = "ml.password";
+    public static final String SAMPLES_DIR_PROPERTY = "ml.samples.dir";
+    public static final String SAMPLE_PROPERTY = "ml.search.sample";
+    public static final String STRATEGY_PROPERTY = "ml.search.strategy";
+    public static final String TRIALS_PROPERTY = "ml.search.trials";
+    public static final String CONCURRENCY_PROPERTY = "ml.search.concurrency";
+    public static final String METRIC_PROPERTY = "ml.search.metric";
+    public static final String MINIMIZE_PROPERTY = "ml.search.minimize";
+    public static final String SEED_PROPERTY = "ml.search.seed";
+
+    public static final String DEFAULT_SERVER_URL = "https://localhost:9443";
+    public static final String DEFAULT_USERNAME = "admin";
+    public static final String DEFAULT_PASSWORD = "admin";
+    public static final String DEFAULT_SAMPLES_DIR = "../samples/tuned";
+    public static final String DEFAULT_SAMPLE = "logistic-regression-sgd";
+    public static final String DEFAULT_STRATEGY = "GRID";
+    public static final int DEFAULT_TRIALS = 10;
+    public static final int DEFAULT_CONCURRENCY = 4;
+    public static final String DEFAULT_METRIC = "modelAccuracy";
+    public static final long DEFAULT_SEED = 1;
+
+    public static final String HYPER_PARAMETER_SPACE_FILE = "hyper-parameter-space";
+    public static final String HYPER_PARAMETERS_FILE = "hyper-parameters";
+
+    private TuningConfiguration() {
+    }
+
+    /**
+     * Creates a pooled http client for the configured ML server, with a connection for each concurrent trial.
+     *
+     * @return ML http client
+     */
+    public static MLHttpClient createMLHttpClient() {
+        return new MLHttpClient(System.getProperty(SERVER_URL_PROPERTY, DEFAULT_SERVER_URL), System.getProperty(
+                USERNAME_PROPERTY, DEFAULT_USERNAME), System.getProperty(PASSWORD_PROPERTY, DEFAULT_PASSWORD),
+                Math.max(getConcurrency(), MLIntegrationTestConstants.MAX_CONNECTIONS_PER_ROUTE),
+                MLIntegrationTestConstants.IDLE_CONNECTION_TIMEOUT);
+    }
+
+    /**
+     * @return Directory of the sample of which the dataset and the configurations are used
+     */
+    public static File getSampleDirectory() {
+        return new File(System.getProperty(SAMPLES_DIR_PROPERTY, DEFAULT_SAMPLES_DIR), System.getProperty(
+                SAMPLE_PROPERTY, DEFAULT_SAMPLE)).getAbsoluteFile();
+    }
+
+    /**
+     * @return Search strategy
+     */
+    public static SearchStrategy getStrategy() {
+        return SearchStrategy.valueOf(System.getProperty(STRATEGY_PROPERTY, DEFAULT_STRATEGY).toUpperCase());
+    }
+
+    /**
+     * @return Number of candidates drawn by the random and the successive halving strategies
+     */
+    public static int getTrials() {
+        return Integer.getInteger(TRIALS_PROPERTY, DEFAULT_TRIALS);
+    }
+
+    /**
+     * @return Maximum number of models built at a time
+     */
+    public static int getConcurrency() {
+        return Integer.getInteger(CONCURRENCY_PROPERTY, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * @return Name of the model summary field by which the trials are ranked
+     */
+    public static String getMetric() {
+        return System.getProperty(METRIC_PROPERTY, DEFAULT_METRIC);
+    }
+
+    /**
+     * @return true if a lower metric is better, e.g. for mean squared error
+     */
+    public static boolean isMinimize() {
+        return Boolean.getBoolean(MINIMIZE_PROPERTY);
+    }
+
+    /**
+     * @return Seed of the random draws of candidates
+     */
+    public static long getSeed() {
+        return Long.getLong(SEED_PROPERTY, DEFAULT_SEED);
+    }
+}